@@ -0,0 +1,105 @@
+package com.jack.userservice.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.okhttp.OkHttpClient;
+import okhttp3.ConnectionPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// One auth-service style call (POST /api/auth/validate -> "true") per op against a local HTTP server:
+// Feign's default HttpURLConnection client vs. pooled OkHttp vs. OkHttp opening a new connection per call.
+// Loopback hides most of the handshake cost, so real (TLS, cross-host) gains are larger than shown here.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class FeignTransportBenchmark {
+
+    private static final byte[] RESPONSE = "true".getBytes(StandardCharsets.UTF_8);
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Request request;
+    private Request.Options options;
+
+    private Client defaultClient;
+    private Client okHttpPooled;
+    private Client okHttpNoReuse;
+
+    @Setup
+    public void setUp() throws IOException {
+        serverExecutor = Executors.newFixedThreadPool(4);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 128);
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/auth/validate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.sendResponseHeaders(200, RESPONSE.length);
+            exchange.getResponseBody().write(RESPONSE);
+            exchange.close();
+        });
+        server.start();
+
+        String url = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/auth/validate?userId=42";
+        request = Request.create(Request.HttpMethod.POST, url,
+                Map.of("Authorization", List.of("Bearer benchmark-token")), new byte[0],
+                StandardCharsets.UTF_8, null);
+        options = new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, true);
+
+        defaultClient = new Client.Default(null, null);
+        okHttpPooled = new OkHttpClient();
+        okHttpNoReuse = new OkHttpClient(new okhttp3.OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(0, 1, TimeUnit.MILLISECONDS))
+                .build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public int defaultHttpUrlConnection() throws IOException {
+        return execute(defaultClient);
+    }
+
+    @Benchmark
+    public int okHttpPooled() throws IOException {
+        return execute(okHttpPooled);
+    }
+
+    @Benchmark
+    public int okHttpNewConnectionPerCall() throws IOException {
+        return execute(okHttpNoReuse);
+    }
+
+    private int execute(Client client) throws IOException {
+        try (Response response = client.execute(request, options); InputStream body = response.body().asInputStream()) {
+            return body.readAllBytes().length;
+        }
+    }
+}
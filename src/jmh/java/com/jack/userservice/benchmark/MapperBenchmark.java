@@ -0,0 +1,72 @@
+package com.jack.userservice.benchmark;
+
+import com.jack.userservice.dto.UsersDTO;
+import com.jack.userservice.entity.Users;
+import com.jack.userservice.mapper.UsersMapper;
+import com.jack.userservice.outbox.Outbox;
+import com.jack.userservice.outbox.OutboxDTO;
+import com.jack.userservice.outbox.OutboxMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final UsersMapper usersMapper = new UsersMapper();
+
+    private Users user;
+    private UsersDTO usersDTO;
+    private Outbox outbox;
+    private OutboxDTO outboxDTO;
+
+    @Setup
+    public void setUp() {
+        user = Users.builder()
+                .id(42L)
+                .name("Jack Lee")
+                .email("jack.lee@example.com")
+                .password("$2a$10$7EqJtq98hPqEX7fNZaFWoO5uP1b1hZ8d1Wl2d0QJQWJQ5F6bC5rXa")
+                .build();
+        usersDTO = usersMapper.toDto(user);
+
+        outbox = new Outbox(7L, 42L, "WalletCreation", "{\"userId\":42,\"initialBalance\":1000.0}",
+                LocalDateTime.now(), false, null, null, null);
+        outboxDTO = OutboxMapper.mapToDTO(outbox);
+    }
+
+    @Benchmark
+    public UsersDTO usersToDto() {
+        return usersMapper.toDto(user);
+    }
+
+    @Benchmark
+    public Users usersToEntity() {
+        return usersMapper.toEntity(usersDTO);
+    }
+
+    @Benchmark
+    public OutboxDTO outboxToDto() {
+        return OutboxMapper.mapToDTO(outbox);
+    }
+
+    @Benchmark
+    public Outbox outboxToEntity() {
+        return OutboxMapper.mapToEntity(outboxDTO);
+    }
+}
@@ -0,0 +1,114 @@
+package com.jack.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jack.userservice.config.RabbitMQConfig;
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.message.WalletCreationMessage;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// AMQP body encoding: the old default (Java serialization) against the JSON converter from RabbitMQConfig.
+// Serialize benchmarks also report the body size of the message they produce as the bodyBytes secondary result.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MessageConverterBenchmark {
+
+    private final SimpleMessageConverter javaSerialization = new SimpleMessageConverter();
+    private final MessageConverter json = new RabbitMQConfig().messageConverter(new ObjectMapper());
+
+    private WalletCreationMessage walletCreationMessage;
+    private WalletBalanceDTO walletBalanceDTO;
+    private Message walletCreationSerialized;
+    private Message walletCreationJson;
+    private Message walletBalanceSerialized;
+    private Message walletBalanceJson;
+
+    @Setup
+    public void setUp() {
+        javaSerialization.setAllowedListPatterns(List.of("com.jack.userservice.*", "java.lang.*"));
+        walletCreationMessage = new WalletCreationMessage(42L, 1000.0);
+        walletBalanceDTO = WalletBalanceDTO.builder()
+                .userId(42L)
+                .usdBalance(1000.0)
+                .btcBalance(0.5)
+                .version(7L)
+                .build();
+
+        walletCreationSerialized = javaSerialization.toMessage(walletCreationMessage, new MessageProperties());
+        walletCreationJson = json.toMessage(walletCreationMessage, new MessageProperties());
+        walletBalanceSerialized = javaSerialization.toMessage(walletBalanceDTO, new MessageProperties());
+        walletBalanceJson = json.toMessage(walletBalanceDTO, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message walletCreationJavaSerialize(BodySize bodySize) {
+        return bodySize.record(javaSerialization.toMessage(walletCreationMessage, new MessageProperties()));
+    }
+
+    @Benchmark
+    public Message walletCreationJsonSerialize(BodySize bodySize) {
+        return bodySize.record(json.toMessage(walletCreationMessage, new MessageProperties()));
+    }
+
+    @Benchmark
+    public Object walletCreationJavaDeserialize() {
+        return javaSerialization.fromMessage(walletCreationSerialized);
+    }
+
+    @Benchmark
+    public Object walletCreationJsonDeserialize() {
+        return json.fromMessage(walletCreationJson);
+    }
+
+    @Benchmark
+    public Message walletBalanceJavaSerialize(BodySize bodySize) {
+        return bodySize.record(javaSerialization.toMessage(walletBalanceDTO, new MessageProperties()));
+    }
+
+    @Benchmark
+    public Message walletBalanceJsonSerialize(BodySize bodySize) {
+        return bodySize.record(json.toMessage(walletBalanceDTO, new MessageProperties()));
+    }
+
+    @Benchmark
+    public Object walletBalanceJavaDeserialize() {
+        return javaSerialization.fromMessage(walletBalanceSerialized);
+    }
+
+    @Benchmark
+    public Object walletBalanceJsonDeserialize() {
+        return json.fromMessage(walletBalanceJson);
+    }
+
+    // Last body size, not a sum: the value does not change between invocations
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class BodySize {
+        public long bodyBytes;
+
+        Message record(Message message) {
+            bodyBytes = message.getBody().length;
+            return message;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.jack.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jack.userservice.config.VersionedJsonRedisSerializer;
+import com.jack.userservice.dto.UsersDTO;
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.message.WalletCreationMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+// Redis value round trips and outbox payload parsing, as done on every cache read/write and relay
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private final GenericJackson2JsonRedisSerializer redisSerializer = new GenericJackson2JsonRedisSerializer();
+    private final VersionedJsonRedisSerializer<UsersDTO> usersSerializer = new VersionedJsonRedisSerializer<>(UsersDTO.class);
+    private final VersionedJsonRedisSerializer<WalletBalanceDTO> walletBalanceSerializer =
+            new VersionedJsonRedisSerializer<>(WalletBalanceDTO.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private UsersDTO usersDTO;
+    private WalletBalanceDTO walletBalanceDTO;
+    private byte[] usersBytes;
+    private byte[] walletBalanceBytes;
+    private byte[] usersVersionedBytes;
+    private byte[] walletBalanceVersionedBytes;
+    private String walletCreationPayload;
+
+    @Setup
+    public void setUp() throws Exception {
+        usersDTO = UsersDTO.builder()
+                .id(42L)
+                .name("Jack Lee")
+                .email("jack.lee@example.com")
+                .build();
+        walletBalanceDTO = WalletBalanceDTO.builder()
+                .userId(42L)
+                .usdBalance(1000.0)
+                .btcBalance(0.5)
+                .build();
+        usersBytes = redisSerializer.serialize(usersDTO);
+        walletBalanceBytes = redisSerializer.serialize(walletBalanceDTO);
+        usersVersionedBytes = usersSerializer.serialize(usersDTO);
+        walletBalanceVersionedBytes = walletBalanceSerializer.serialize(walletBalanceDTO);
+        walletCreationPayload = objectMapper.writeValueAsString(new WalletCreationMessage(42L, 1000.0));
+    }
+
+    @Benchmark
+    public byte[] usersSerialize() {
+        return redisSerializer.serialize(usersDTO);
+    }
+
+    @Benchmark
+    public Object usersDeserialize() {
+        return redisSerializer.deserialize(usersBytes);
+    }
+
+    @Benchmark
+    public byte[] walletBalanceSerialize() {
+        return redisSerializer.serialize(walletBalanceDTO);
+    }
+
+    @Benchmark
+    public Object walletBalanceDeserialize() {
+        return redisSerializer.deserialize(walletBalanceBytes);
+    }
+
+    @Benchmark
+    public byte[] usersVersionedSerialize() {
+        return usersSerializer.serialize(usersDTO);
+    }
+
+    @Benchmark
+    public UsersDTO usersVersionedDeserialize() {
+        return usersSerializer.deserialize(usersVersionedBytes);
+    }
+
+    @Benchmark
+    public byte[] walletBalanceVersionedSerialize() {
+        return walletBalanceSerializer.serialize(walletBalanceDTO);
+    }
+
+    @Benchmark
+    public WalletBalanceDTO walletBalanceVersionedDeserialize() {
+        return walletBalanceSerializer.deserialize(walletBalanceVersionedBytes);
+    }
+
+    @Benchmark
+    public WalletCreationMessage walletCreationPayloadDeserialize() throws Exception {
+        return objectMapper.readValue(walletCreationPayload, WalletCreationMessage.class);
+    }
+}
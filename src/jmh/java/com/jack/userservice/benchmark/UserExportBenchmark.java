@@ -0,0 +1,105 @@
+package com.jack.userservice.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jack.userservice.dto.UsersDTO;
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.export.UserExportWriter;
+import com.jack.userservice.repository.UserSummary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Exporting a multi-million-row table: page-by-page NDJSON streaming vs. materialising every user first.
+// Rows are generated in 1000-row pages to stand in for keyset queries; run with -prof gc to compare allocation
+// and with a small -Xmx to see the materialising variant fail where streaming does not.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx1g")
+public class UserExportBenchmark {
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"1000000", "3000000"})
+    private int rows;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Benchmark
+    public long streamPages() throws Exception {
+        CountingOutputStream out = new CountingOutputStream();
+        try (UserExportWriter writer = new UserExportWriter(objectMapper.getFactory(), out)) {
+            for (long afterId = 0; afterId < rows; afterId += PAGE_SIZE) {
+                for (UserSummary user : page(afterId)) {
+                    writer.write(user, balanceOf(user.id()));
+                }
+                writer.flush();
+            }
+        }
+        return out.count;
+    }
+
+    @Benchmark
+    public long materializeThenWrite() throws Exception {
+        List<UsersDTO> users = new ArrayList<>();
+        for (long afterId = 0; afterId < rows; afterId += PAGE_SIZE) {
+            for (UserSummary user : page(afterId)) {
+                WalletBalanceDTO balance = balanceOf(user.id());
+                users.add(UsersDTO.builder()
+                        .id(user.id())
+                        .name(user.name())
+                        .email(user.email())
+                        .usdBalance(balance.getUsdBalance())
+                        .btcBalance(balance.getBtcBalance())
+                        .build());
+            }
+        }
+
+        CountingOutputStream out = new CountingOutputStream();
+        objectMapper.writeValue(out, users);
+        return out.count;
+    }
+
+    private List<UserSummary> page(long afterId) {
+        List<UserSummary> page = new ArrayList<>(PAGE_SIZE);
+        for (long id = afterId + 1; id <= Math.min(afterId + PAGE_SIZE, rows); id++) {
+            page.add(new UserSummary(id, "User " + id, "user" + id + "@example.com"));
+        }
+        return page;
+    }
+
+    private static WalletBalanceDTO balanceOf(Long userId) {
+        return WalletBalanceDTO.builder()
+                .userId(userId)
+                .usdBalance(1000.0)
+                .btcBalance(0.5)
+                .build();
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.jack.userservice.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jack.userservice.client.WalletBalanceRequestSender;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+// Single-flight for balance refreshes: concurrent cache misses for one user produce one wallet-service request.
+// A local gate coalesces misses on this instance; a Redis SET NX gate coalesces them across instances.
+// The Redis gate and the publishes run in the background, so a request never waits on them.
+@Component
+public class BalanceRefreshCoordinator {
+    private static final Logger logger = LoggerFactory.getLogger(BalanceRefreshCoordinator.class);
+
+    private static final byte[] LOCK_VALUE = "1".getBytes(StandardCharsets.UTF_8);
+
+    private final WalletBalanceRequestSender walletBalanceRequestSender;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<Long, Boolean> inFlight;
+    private final Duration cooldown;
+    private final ExecutorService refreshExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("balance-refresh-", 0).factory());
+
+    @Value("${app.wallet.balance-refresh.lock-prefix}")
+    private String lockPrefix;
+
+    public BalanceRefreshCoordinator(WalletBalanceRequestSender walletBalanceRequestSender,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     @Value("${app.wallet.balance-refresh.cooldown-ms:2000}") long cooldownMs,
+                                     @Value("${app.wallet.balance-refresh.max-in-flight:100000}") long maxInFlight) {
+        this.walletBalanceRequestSender = walletBalanceRequestSender;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cooldown = Duration.ofMillis(cooldownMs);
+        // An unanswered request frees its slot after the cooldown, so a lost reply is retried
+        this.inFlight = Caffeine.newBuilder()
+                .maximumSize(maxInFlight)
+                .expireAfterWrite(cooldown)
+                .build();
+    }
+
+    public void requestRefresh(Long userId) {
+        requestRefreshAll(List.of(userId));
+    }
+
+    // Batch variant: one pipelined SET NX round trip gates every user, then one request per user that passed
+    public void requestRefreshAll(Collection<Long> userIds) {
+        List<Long> claimed = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            if (inFlight.asMap().putIfAbsent(userId, Boolean.TRUE) == null) {
+                claimed.add(userId);
+            }
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        try {
+            refreshExecutor.execute(() -> refresh(claimed));
+        } catch (RejectedExecutionException e) {
+            claimed.forEach(inFlight::invalidate);  // Shutting down
+        }
+    }
+
+    private void refresh(List<Long> userIds) {
+        List<Object> acquired;
+        try {
+            acquired = stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (Long userId : userIds) {
+                    connection.stringCommands().set((lockPrefix + userId).getBytes(StandardCharsets.UTF_8),
+                            LOCK_VALUE, Expiration.from(cooldown), RedisStringCommands.SetOption.ifAbsent());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            userIds.forEach(inFlight::invalidate);
+            logger.error("Failed to request balance refresh for {} users - {}", userIds.size(), e.getMessage());
+            return;
+        }
+
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            if (!Boolean.TRUE.equals(acquired.get(i))) {
+                // Another instance already asked wallet-service for this user
+                continue;
+            }
+            try {
+                walletBalanceRequestSender.sendBalanceRequest(userId);
+                logger.info("Requested balance refresh from wallet-service for user ID: {}", userId);
+            } catch (Exception e) {
+                inFlight.invalidate(userId);
+                logger.error("Failed to request balance refresh for user ID: {} - {}", userId, e.getMessage());
+            }
+        }
+    }
+
+    // A reply arrived, so the next miss (e.g. after an eviction) may ask again right away
+    public void onBalanceReceived(Long userId) {
+        inFlight.invalidate(userId);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refreshExecutor.shutdown();
+    }
+}
@@ -0,0 +1,299 @@
+package com.jack.userservice.cache;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.jack.userservice.repository.UsersRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Range;
+import org.springframework.data.redis.connection.Limit;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.connection.stream.StreamReadOptions;
+import org.springframework.data.redis.connection.stream.StreamRecords;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+// In-memory Bloom filter of registered (normalized) emails. A negative answer means the email is
+// definitely not registered, so the duplicate-email checks of register and update can skip the database
+// (the unique constraint still backs them). Login and other lookups always query the database.
+// New emails are appended to a capped Redis stream, which every instance replays from its last read entry,
+// and also broadcast over pub/sub so other instances usually see them immediately. While an instance cannot
+// prove it has replayed every entry since its last build (Redis unreachable, entries trimmed before it read
+// them) it stops short-circuiting, since a false negative would hide a registered user.
+// Deleted or changed emails stay as harmless false positives until the periodic rebuild.
+@Component
+public class EmailBloomFilter implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(EmailBloomFilter.class);
+    private static final String EMAIL_SEPARATOR = "\n";
+    private static final String EMAILS_FIELD = "emails";
+    private static final int SYNC_READ_COUNT = 500;
+
+    private final UsersRepository usersRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TransactionTemplate primaryTransaction;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    @Value("${app.users.email-filter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.users.email-filter.min-expected-insertions:100000}")
+    private long minExpectedInsertions;
+
+    @Value("${app.users.email-filter.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    @Value("${app.users.email-filter.channel}")
+    private String channel;
+
+    @Value("${app.users.email-filter.stream}")
+    private String stream;
+
+    @Value("${app.users.email-filter.stream-max-length:100000}")
+    private long streamMaxLength;
+
+    // Broadcasts whose stream append failed; retried on every sync so other instances eventually replay them
+    private final Queue<String> pendingAppends = new ConcurrentLinkedQueue<>();
+    // Last stream entry applied to the filter; guarded by rebuildLock
+    private RecordId lastStreamId;
+    private volatile boolean inSync;
+    private volatile boolean rebuildRequested;
+
+    // null until the first build completes; until then every email "might" exist
+    private volatile BloomFilter<CharSequence> filter;
+    // Filter being rebuilt; receives concurrent additions so none are lost in the swap
+    private volatile BloomFilter<CharSequence> rebuilding;
+
+    public EmailBloomFilter(UsersRepository usersRepository, StringRedisTemplate stringRedisTemplate,
+                            PlatformTransactionManager transactionManager) {
+        this.usersRepository = usersRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        // Not read-only on purpose: with replica routing a lagging snapshot could miss emails registered just
+        // before the rebuild, and the swap would turn them into false negatives
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    public boolean mightContain(String email) {
+        BloomFilter<CharSequence> current = filter;
+        return !enabled || email == null || current == null || !inSync || current.mightContain(normalize(email));
+    }
+
+    // Record a newly registered email here and on every other instance
+    public void add(String email) {
+        addLocally(email);
+        broadcast(email);
+    }
+
+    // Bulk variant: one stream entry and one broadcast carry the whole batch, newline separated
+    public void addAll(Collection<String> emails) {
+        if (emails.isEmpty()) {
+            return;
+        }
+        emails.forEach(this::addLocally);
+        broadcast(String.join(EMAIL_SEPARATOR, emails));
+    }
+
+    private void broadcast(String emails) {
+        try {
+            appendToStream(emails);
+        } catch (Exception e) {
+            pendingAppends.add(emails);
+            logger.error("Failed to append new emails to the filter stream, will retry: {}", e.getMessage());
+        }
+        try {
+            stringRedisTemplate.convertAndSend(channel, emails);
+        } catch (Exception e) {
+            // The stream entry (or its retry) still reaches every instance
+            logger.warn("Failed to broadcast new emails to other instances: {}", e.getMessage());
+        }
+    }
+
+    private void appendToStream(String emails) {
+        stringRedisTemplate.opsForStream().add(
+                StreamRecords.string(Map.of(EMAILS_FIELD, emails)).withStreamKey(stream));
+        stringRedisTemplate.opsForStream().trim(stream, streamMaxLength, true);
+    }
+
+    // Catch-up for pub/sub messages missed while disconnected, and the retry path for failed appends
+    @Scheduled(fixedDelayString = "${app.users.email-filter.sync-interval-ms:1000}")
+    public void sync() {
+        if (!enabled) {
+            return;
+        }
+        if (rebuildRequested) {
+            rebuild();
+            return;
+        }
+        if (!rebuildLock.tryLock()) {
+            return;  // A rebuild is running and re-anchors the stream position itself
+        }
+
+        try {
+            String pending;
+            while ((pending = pendingAppends.peek()) != null) {
+                appendToStream(pending);
+                pendingAppends.poll();
+            }
+
+            if (lastStreamId == null) {
+                return;  // No successful build yet
+            }
+            if (entriesTrimmedSince(lastStreamId)) {
+                inSync = false;
+                rebuildRequested = true;
+                logger.warn("Email filter stream was trimmed past this instance's position; rebuilding");
+                return;
+            }
+
+            List<MapRecord<String, Object, Object>> records;
+            do {
+                records = stringRedisTemplate.opsForStream().read(StreamReadOptions.empty().count(SYNC_READ_COUNT),
+                        StreamOffset.create(stream, ReadOffset.from(lastStreamId)));
+                if (records == null) {
+                    break;
+                }
+                for (MapRecord<String, Object, Object> record : records) {
+                    Object emails = record.getValue().get(EMAILS_FIELD);
+                    if (emails != null) {
+                        addAllLocally(emails.toString());
+                    }
+                    lastStreamId = record.getId();
+                }
+            } while (records.size() == SYNC_READ_COUNT);
+
+            if (!inSync) {
+                logger.info("Email filter caught up with the stream; short-circuiting lookups again");
+            }
+            inSync = true;
+        } catch (Exception e) {
+            if (inSync) {
+                logger.warn("Email filter cannot sync with Redis, treating every email as possibly registered: {}",
+                        e.getMessage());
+            }
+            inSync = false;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // The position was trimmed away if the oldest remaining entry is newer than it
+    private boolean entriesTrimmedSince(RecordId position) {
+        List<MapRecord<String, Object, Object>> oldest = stringRedisTemplate.opsForStream()
+                .range(stream, Range.unbounded(), Limit.limit().count(1));
+        return oldest != null && !oldest.isEmpty() && compare(oldest.get(0).getId(), position) > 0;
+    }
+
+    private RecordId streamTail() {
+        List<MapRecord<String, Object, Object>> newest = stringRedisTemplate.opsForStream()
+                .reverseRange(stream, Range.unbounded(), Limit.limit().count(1));
+        return newest == null || newest.isEmpty() ? RecordId.of(0, 0) : newest.get(0).getId();
+    }
+
+    private static int compare(RecordId left, RecordId right) {
+        int byTimestamp = Long.compare(left.getTimestamp(), right.getTimestamp());
+        return byTimestamp != 0 ? byTimestamp : Long.compare(left.getSequence(), right.getSequence());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        addAllLocally(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    public double expectedFalsePositiveRate() {
+        BloomFilter<CharSequence> current = filter;
+        return current != null && inSync ? current.expectedFpp() : 1.0;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    // Periodic rebuild drops deleted/changed emails and resizes the filter as the table grows
+    @Scheduled(initialDelayString = "${app.users.email-filter.rebuild-interval-ms:3600000}",
+            fixedDelayString = "${app.users.email-filter.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        if (!enabled || !rebuildLock.tryLock()) {
+            return;
+        }
+
+        try {
+            // Read first so an unreachable Redis fails the rebuild before the table scan. Entries up to here were
+            // appended after their users committed, so the snapshot below contains them.
+            RecordId anchor = streamTail();
+            long expectedInsertions = Math.max(minExpectedInsertions, usersRepository.count() * 2);
+            BloomFilter<CharSequence> fresh = BloomFilter.create(
+                    Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, falsePositiveRate);
+            rebuilding = fresh;
+
+            AtomicLong loaded = new AtomicLong();
+            primaryTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = usersRepository.streamAllEmails()) {
+                    emails.forEach(email -> {
+                        fresh.put(normalize(email));
+                        loaded.incrementAndGet();
+                    });
+                }
+            });
+
+            // Publish the new filter before detaching it from concurrent additions (see addLocally)
+            filter = fresh;
+            rebuilding = null;
+            lastStreamId = anchor;
+            rebuildRequested = false;
+            inSync = true;
+            logger.info("Email Bloom filter built with {} emails (expected false positive rate {}).",
+                    loaded.get(), String.format(Locale.ROOT, "%.4f", fresh.expectedFpp()));
+        } catch (Exception e) {
+            rebuilding = null;
+            rebuildRequested = true;  // Retried by the next sync
+            logger.error("Failed to build email Bloom filter, keeping the previous one: {}", e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void addAllLocally(String emails) {
+        for (String email : emails.split(EMAIL_SEPARATOR)) {
+            addLocally(email);
+        }
+    }
+
+    private void addLocally(String email) {
+        String normalized = normalize(email);
+        // Read the rebuild target first: once it is detached, filter already points at it
+        BloomFilter<CharSequence> next = rebuilding;
+        if (next != null) {
+            next.put(normalized);
+        }
+        BloomFilter<CharSequence> current = filter;
+        if (current != null) {
+            current.put(normalized);
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,119 @@
+package com.jack.userservice.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Moves balances cached under the old walletBalance:<id> keys to the hash-tagged walletBalance:{<id>} keys.
+// Without it the old keys are orphaned (they never expire) and every user is a cold miss after the rollout.
+// A migrated balance only fills an empty new key (SET NX), so it never overwrites a fresher reply. Old-format
+// version keys are only deleted. Keeps running while instances of the old version may still write old keys;
+// it can be disabled once a run logs nothing left to migrate after the rollout.
+@Component
+@ConditionalOnProperty(name = "app.wallet.legacy-key-migration.enabled", havingValue = "true", matchIfMissing = true)
+public class LegacyBalanceKeyMigration {
+    private static final Logger logger = LoggerFactory.getLogger(LegacyBalanceKeyMigration.class);
+
+    private static final Pattern LEGACY_SUFFIX = Pattern.compile("\\d+");
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${app.wallet.cache-prefix}")
+    private String cachePrefix;
+
+    @Value("${app.wallet.version-prefix}")
+    private String versionPrefix;
+
+    @Value("${app.wallet.cache-ttl-ms:604800000}")
+    private long cacheTtlMs;
+
+    @Value("${app.wallet.legacy-key-migration.batch-size:500}")
+    private int batchSize;
+
+    public LegacyBalanceKeyMigration(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.wallet.legacy-key-migration.interval-ms:3600000}")
+    public void run() {
+        try {
+            long balances = migrate(cachePrefix, true);
+            long versions = migrate(versionPrefix, false);
+            if (balances > 0 || versions > 0) {
+                logger.info("Migrated {} legacy wallet balance keys and removed {} legacy version keys", balances, versions);
+            } else {
+                logger.debug("No legacy wallet balance keys left to migrate");
+            }
+        } catch (Exception e) {
+            logger.warn("Legacy wallet balance key migration failed: {}", e.getMessage());
+        }
+    }
+
+    private long migrate(String prefix, boolean copyValues) {
+        ScanOptions options = ScanOptions.scanOptions().match(prefix + "*").count(batchSize).build();
+        long migrated = 0;
+
+        try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+            List<String> batch = new ArrayList<>(batchSize);
+            while (cursor.hasNext()) {
+                String key = cursor.next();
+                if (LEGACY_SUFFIX.matcher(key.substring(prefix.length())).matches()) {
+                    batch.add(key);
+                }
+                if (batch.size() == batchSize) {
+                    migrated += migrateBatch(prefix, batch, copyValues);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                migrated += migrateBatch(prefix, batch, copyValues);
+            }
+        }
+        return migrated;
+    }
+
+    // One MGET for the old values, then one pipeline of SET NX + UNLINK
+    private int migrateBatch(String prefix, List<String> legacyKeys, boolean copyValues) {
+        byte[][] rawKeys = legacyKeys.stream().map(LegacyBalanceKeyMigration::bytes).toArray(byte[][]::new);
+        List<byte[]> values = copyValues
+                ? stringRedisTemplate.execute((RedisCallback<List<byte[]>>) connection ->
+                        connection.stringCommands().mGet(rawKeys))
+                : null;
+
+        stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (int i = 0; i < legacyKeys.size(); i++) {
+                if (values != null && values.get(i) != null) {
+                    String userId = legacyKeys.get(i).substring(prefix.length());
+                    copy(connection, bytes(prefix + "{" + userId + "}"), values.get(i));
+                }
+                connection.keyCommands().unlink(rawKeys[i]);
+            }
+            return null;
+        });
+        return legacyKeys.size();
+    }
+
+    private void copy(RedisConnection connection, byte[] key, byte[] value) {
+        connection.stringCommands().set(key, value, Expiration.milliseconds(cacheTtlMs),
+                RedisStringCommands.SetOption.ifAbsent());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
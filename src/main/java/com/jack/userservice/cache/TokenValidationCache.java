@@ -0,0 +1,133 @@
+package com.jack.userservice.cache;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.jack.userservice.security.TokenDigests;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+// Keyed by token digest, so a logout evicts with a single lookup. Evictions are published on a Redis channel so
+// every instance drops the token; if that publish is lost, the configured TTL bounds how long it stays cached.
+@Component
+public class TokenValidationCache implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(TokenValidationCache.class);
+
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Cache<String, CachedValidation> cache;
+    private final Duration maxTtl;
+
+    @Value("${app.auth.validation-cache.invalidation-channel}")
+    private String invalidationChannel;
+
+    public TokenValidationCache(ObjectMapper objectMapper, StringRedisTemplate stringRedisTemplate,
+                                @Value("${app.auth.validation-cache.max-size:10000}") long maxSize,
+                                @Value("${app.auth.validation-cache.ttl-ms:60000}") long ttlMs) {
+        this.objectMapper = objectMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.maxTtl = Duration.ofMillis(ttlMs);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ValidationExpiry())
+                .recordStats()
+                .build();
+    }
+
+    // Returns true only for a cached positive result; rejections are never cached
+    public boolean isCachedValid(String token, Long userId) {
+        CachedValidation cached = cache.getIfPresent(TokenDigests.sha256(token));
+        return cached != null && cached.userId().equals(userId);
+    }
+
+    public void putValid(String token, Long userId) {
+        Duration ttl = ttlFor(token);
+        if (!ttl.isZero() && !ttl.isNegative()) {
+            cache.put(TokenDigests.sha256(token), new CachedValidation(userId, ttl.toNanos()));
+        }
+    }
+
+    public void evict(String token) {
+        String digest = TokenDigests.sha256(token);
+        cache.invalidate(digest);
+        try {
+            stringRedisTemplate.convertAndSend(invalidationChannel, digest);
+        } catch (Exception e) {
+            logger.warn("Failed to broadcast token eviction to other instances: {}", e.getMessage());
+        }
+    }
+
+    // Evictions published by other instances; the body is the token digest, never the token itself
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        cache.invalidate(new String(message.getBody(), StandardCharsets.UTF_8));
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    // For metrics binding (hit ratio, evictions, size)
+    public Cache<?, ?> nativeCache() {
+        return cache;
+    }
+
+    // Configured TTL, capped so an entry never outlives the token's exp claim
+    private Duration ttlFor(String token) {
+        Instant expiresAt = readExpiry(TokenDigests.stripBearerPrefix(token));
+        if (expiresAt == null) {
+            return Duration.ZERO;
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), expiresAt);
+        return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+    }
+
+    // The signature has already been checked by auth-service; only the exp claim is read here
+    private Instant readExpiry(String compactToken) {
+        String[] parts = compactToken.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+
+        try {
+            byte[] payload = Base64.getUrlDecoder().decode(parts[1]);
+            JsonNode exp = objectMapper.readTree(new String(payload, StandardCharsets.UTF_8)).get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private record CachedValidation(Long userId, long ttlNanos) {
+    }
+
+    private static class ValidationExpiry implements Expiry<String, CachedValidation> {
+        @Override
+        public long expireAfterCreate(String key, CachedValidation value, long currentTime) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return value.ttlNanos();
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedValidation value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
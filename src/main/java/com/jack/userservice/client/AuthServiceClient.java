@@ -3,22 +3,35 @@ package com.jack.userservice.client;
 import com.jack.userservice.constants.SecurityConstants;
 import com.jack.userservice.dto.AuthRequestDTO;
 import com.jack.userservice.dto.AuthResponseDTO;
+import feign.Request;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.Set;
+
+// Call through AuthServiceGateway, which supplies per-method timeouts (Request.Options) and fault isolation
 @FeignClient(name = "auth-service", url = "${AUTH_SERVICE_URL:https://auth-service:8084}")
 public interface AuthServiceClient {
 
     @PostMapping("/api/auth/login")
-    AuthResponseDTO login(@RequestBody AuthRequestDTO authRequestDTO);
+    AuthResponseDTO login(@RequestBody AuthRequestDTO authRequestDTO, Request.Options options);
 
     @PostMapping("/api/auth/logout")
-    void logout(@RequestHeader(SecurityConstants.AUTHORIZATION_HEADER) String token);
+    void logout(@RequestHeader(SecurityConstants.AUTHORIZATION_HEADER) String token, Request.Options options);
 
     @PostMapping("/api/auth/validate")
-    Boolean validateToken(@RequestHeader(SecurityConstants.AUTHORIZATION_HEADER) String token, @RequestParam Long userId);
+    Boolean validateToken(@RequestHeader(SecurityConstants.AUTHORIZATION_HEADER) String token, @RequestParam Long userId,
+                          Request.Options options);
+
+    // Revoked token identifiers (jti or SHA-256 hex of the compact token)
+    @GetMapping("/api/auth/revoked-tokens")
+    Set<String> getRevokedTokens(Request.Options options);
 
+    // Public signing keys as a JWKS document
+    @GetMapping("/api/auth/jwks")
+    String getJwks(Request.Options options);
 }
@@ -0,0 +1,201 @@
+package com.jack.userservice.client;
+
+import com.jack.userservice.dto.AuthRequestDTO;
+import com.jack.userservice.dto.AuthResponseDTO;
+import com.jack.userservice.exception.CustomErrorException;
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.jack.userservice.constants.ErrorMessages.AUTH_SERVICE_UNAVAILABLE;
+import static com.jack.userservice.constants.ErrorMessages.USERS_API_PATH;
+
+// Single entry point to auth-service: per-method timeouts, a concurrency bulkhead so a slow auth-service
+// cannot tie up every request thread, and a circuit breaker that fails fast while it is down
+@Component
+public class AuthServiceGateway {
+    private static final Logger logger = LoggerFactory.getLogger(AuthServiceGateway.class);
+
+    private static final String AUTH_SERVICE = "auth-service";
+
+    private final AuthServiceClient authServiceClient;
+    private final LogoutRetryQueue logoutRetryQueue;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    private final Request.Options loginOptions;
+    private final Request.Options validateOptions;
+    private final Request.Options logoutOptions;
+    private final Request.Options backgroundOptions;
+
+    @Value("${app.auth.client.logout-retry.batch-size:100}")
+    private int logoutRetryBatchSize;
+
+    public AuthServiceGateway(AuthServiceClient authServiceClient,
+                              LogoutRetryQueue logoutRetryQueue,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.auth.client.connect-timeout-ms:1000}") long connectTimeoutMs,
+                              @Value("${app.auth.client.timeouts.login-ms:3000}") long loginTimeoutMs,
+                              @Value("${app.auth.client.timeouts.validate-ms:1000}") long validateTimeoutMs,
+                              @Value("${app.auth.client.timeouts.logout-ms:2000}") long logoutTimeoutMs,
+                              @Value("${app.auth.client.timeouts.background-ms:5000}") long backgroundTimeoutMs,
+                              @Value("${app.auth.client.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                              @Value("${app.auth.client.circuit-breaker.slow-call-duration-ms:2000}") long slowCallDurationMs,
+                              @Value("${app.auth.client.circuit-breaker.slow-call-rate-threshold:80}") float slowCallRateThreshold,
+                              @Value("${app.auth.client.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+                              @Value("${app.auth.client.circuit-breaker.minimum-number-of-calls:20}") int minimumNumberOfCalls,
+                              @Value("${app.auth.client.circuit-breaker.wait-in-open-ms:10000}") long waitInOpenMs,
+                              @Value("${app.auth.client.bulkhead.max-concurrent-calls:64}") int maxConcurrentCalls,
+                              @Value("${app.auth.client.bulkhead.max-wait-ms:20}") long maxWaitMs) {
+        this.authServiceClient = authServiceClient;
+        this.logoutRetryQueue = logoutRetryQueue;
+
+        this.loginOptions = options(connectTimeoutMs, loginTimeoutMs);
+        this.validateOptions = options(connectTimeoutMs, validateTimeoutMs);
+        this.logoutOptions = options(connectTimeoutMs, logoutTimeoutMs);
+        this.backgroundOptions = options(connectTimeoutMs, backgroundTimeoutMs);
+
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallDurationMs))
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(Duration.ofMillis(waitInOpenMs))
+                .recordException(AuthServiceGateway::isAuthServiceFault)
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ofMillis(maxWaitMs))
+                .build());
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(AUTH_SERVICE);
+        this.bulkhead = bulkheadRegistry.bulkhead(AUTH_SERVICE);
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+    }
+
+    public AuthResponseDTO login(AuthRequestDTO authRequestDTO) {
+        return call(() -> authServiceClient.login(authRequestDTO, loginOptions));
+    }
+
+    public Boolean validateToken(String token, Long userId) {
+        return call(() -> authServiceClient.validateToken(token, userId, validateOptions));
+    }
+
+    public Set<String> getRevokedTokens() {
+        return call(() -> authServiceClient.getRevokedTokens(backgroundOptions));
+    }
+
+    public String getJwks() {
+        return call(() -> authServiceClient.getJwks(backgroundOptions));
+    }
+
+    // Returns false when auth-service could not be reached and the logout was queued for retry instead
+    public boolean logout(String token) {
+        try {
+            call(() -> {
+                authServiceClient.logout(token, logoutOptions);
+                return null;
+            });
+            return true;
+        } catch (FeignException e) {
+            if (!isAuthServiceFault(e)) {
+                throw e;
+            }
+            logger.warn("auth-service logout failed ({}), queued for retry", e.status());
+        } catch (CustomErrorException e) {
+            logger.warn("auth-service unavailable for logout, queued for retry");
+        }
+
+        try {
+            if (!logoutRetryQueue.enqueue(token)) {
+                logger.warn("Logout retry queue is disabled; auth-service will not be told about this logout");
+            }
+        } catch (Exception e) {
+            // The token is still revoked locally; only auth-service's own revocation is lost
+            logger.error("Failed to queue logout for retry: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.client.logout-retry.interval-ms:10000}")
+    public void retryQueuedLogouts() {
+        if (!circuitBreaker.tryAcquirePermission()) {
+            return;
+        }
+        circuitBreaker.releasePermission();
+
+        for (int i = 0; i < logoutRetryBatchSize; i++) {
+            LogoutRetryQueue.QueuedLogout logout;
+            try {
+                logout = logoutRetryQueue.poll();
+            } catch (Exception e) {
+                logger.warn("Failed to read the logout retry queue: {}", e.getMessage());
+                return;
+            }
+            if (logout == null) {
+                return;
+            }
+
+            try {
+                call(() -> {
+                    authServiceClient.logout(logout.token(), logoutOptions);
+                    return null;
+                });
+            } catch (FeignException e) {
+                if (isAuthServiceFault(e)) {
+                    logoutRetryQueue.requeue(logout);
+                    return;
+                }
+                // 4xx: auth-service will never accept this token (e.g. already expired), drop it
+                logger.warn("Dropping queued logout rejected by auth-service with status {}", e.status());
+            } catch (CustomErrorException e) {
+                logoutRetryQueue.requeue(logout);
+                return;
+            }
+        }
+    }
+
+    private <T> T call(Supplier<T> request) {
+        try {
+            return Bulkhead.decorateSupplier(bulkhead, CircuitBreaker.decorateSupplier(circuitBreaker, request)).get();
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            logger.warn("auth-service call rejected: {}", e.getMessage());
+            throw new CustomErrorException(HttpStatus.SERVICE_UNAVAILABLE, AUTH_SERVICE_UNAVAILABLE, USERS_API_PATH);
+        }
+    }
+
+    // Only transport errors and 5xx say something about auth-service health; 4xx are the caller's problem
+    private static boolean isAuthServiceFault(Throwable throwable) {
+        if (throwable instanceof FeignException feignException) {
+            return feignException.status() < 0 || feignException.status() >= 500;
+        }
+        return true;
+    }
+
+    private static Request.Options options(long connectTimeoutMs, long readTimeoutMs) {
+        return new Request.Options(connectTimeoutMs, TimeUnit.MILLISECONDS, readTimeoutMs, TimeUnit.MILLISECONDS, true);
+    }
+}
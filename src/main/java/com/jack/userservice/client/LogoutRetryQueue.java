@@ -0,0 +1,136 @@
+package com.jack.userservice.client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+// Logouts auth-service could not take yet, shared by all instances (Redis list, oldest at the right end).
+// auth-service's logout endpoint only accepts the bearer token itself, so each entry holds the token
+// AES-GCM encrypted under app.auth.client.logout-retry.encryption-key; without that key nothing is queued.
+// Nothing is kept past the token lifetime: stale entries are dropped on poll, and the key expires one
+// lifetime after the last enqueue.
+@Component
+public class LogoutRetryQueue {
+    private static final Logger logger = LoggerFactory.getLogger(LogoutRetryQueue.class);
+
+    private static final char SEPARATOR = ':';
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SecretKeySpec encryptionKey;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${app.auth.client.logout-retry.key:auth:logout-retry}")
+    private String key;
+
+    @Value("${app.auth.client.logout-retry.max-size:10000}")
+    private long maxSize;
+
+    @Value("${app.auth.jwt.expiration-ms:3600000}")
+    private long tokenLifetimeMs;
+
+    public LogoutRetryQueue(StringRedisTemplate stringRedisTemplate,
+                            @Value("${app.auth.client.logout-retry.encryption-key:}") String encryptionKey) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        if (encryptionKey.isBlank()) {
+            logger.warn("app.auth.client.logout-retry.encryption-key is not set; failed logouts are not retried");
+            this.encryptionKey = null;
+        } else {
+            byte[] keyBytes = Base64.getDecoder().decode(encryptionKey);
+            if (keyBytes.length != 16 && keyBytes.length != 24 && keyBytes.length != 32) {
+                throw new IllegalStateException("app.auth.client.logout-retry.encryption-key must be a 128, 192 or 256-bit AES key");
+            }
+            this.encryptionKey = new SecretKeySpec(keyBytes, "AES");
+        }
+    }
+
+    // Bounded: during a long outage the oldest entries are dropped (their tokens expire anyway).
+    // Returns false when the queue is disabled.
+    public boolean enqueue(String token) {
+        if (encryptionKey == null) {
+            return false;
+        }
+        stringRedisTemplate.opsForList().leftPush(key, System.currentTimeMillis() + String.valueOf(SEPARATOR) + encrypt(token));
+        stringRedisTemplate.opsForList().trim(key, 0, maxSize - 1);
+        stringRedisTemplate.expire(key, Duration.ofMillis(tokenLifetimeMs));
+        return true;
+    }
+
+    // Next logout whose token can still be valid, or null when none is left
+    public QueuedLogout poll() {
+        if (encryptionKey == null) {
+            return null;
+        }
+
+        long oldestLive = System.currentTimeMillis() - tokenLifetimeMs;
+        String entry;
+        while ((entry = stringRedisTemplate.opsForList().rightPop(key)) != null) {
+            int separator = entry.indexOf(SEPARATOR);
+            if (separator < 0) {
+                continue;
+            }
+            try {
+                if (Long.parseLong(entry.substring(0, separator)) >= oldestLive) {
+                    return new QueuedLogout(decrypt(entry.substring(separator + 1)), entry);
+                }
+            } catch (NumberFormatException | GeneralSecurityException e) {
+                // Not written by this class, or under a previous key; drop it
+            }
+        }
+        return null;
+    }
+
+    // Put a logout back at the head of the queue after a failed retry, keeping its original enqueue time
+    public void requeue(QueuedLogout logout) {
+        stringRedisTemplate.opsForList().rightPush(key, logout.entry());
+    }
+
+    // Base64 of IV followed by ciphertext and tag
+    private String encrypt(String token) {
+        try {
+            byte[] iv = new byte[IV_LENGTH];
+            secureRandom.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance(CIPHER);
+            cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            byte[] ciphertext = cipher.doFinal(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(ByteBuffer.allocate(iv.length + ciphertext.length)
+                    .put(iv)
+                    .put(ciphertext)
+                    .array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to encrypt queued logout", e);
+        }
+    }
+
+    private String decrypt(String encrypted) throws GeneralSecurityException {
+        byte[] data;
+        try {
+            data = Base64.getDecoder().decode(encrypted);
+        } catch (IllegalArgumentException e) {
+            throw new GeneralSecurityException("Queued logout is not Base64", e);
+        }
+        if (data.length <= IV_LENGTH) {
+            throw new GeneralSecurityException("Queued logout is too short");
+        }
+        Cipher cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(TAG_LENGTH_BITS, data, 0, IV_LENGTH));
+        return new String(cipher.doFinal(data, IV_LENGTH, data.length - IV_LENGTH), StandardCharsets.UTF_8);
+    }
+
+    public record QueuedLogout(String token, String entry) {
+    }
+}
@@ -1,14 +1,24 @@
 package com.jack.userservice.client;
 
-import com.jack.walletservice.message.WalletBalanceRequest;
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.message.WalletBalanceRequest;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class WalletBalanceRequestSender {
 
+    private static final ParameterizedTypeReference<WalletBalanceDTO> WALLET_BALANCE_TYPE =
+            new ParameterizedTypeReference<>() {
+            };
+
     private final RabbitTemplate rabbitTemplate;
+    private final AsyncRabbitTemplate asyncRabbitTemplate;
 
     @Value("${app.wallet.exchange}")
     private String walletExchange;
@@ -19,8 +29,9 @@ public class WalletBalanceRequestSender {
     @Value("${app.wallet.reply-to-queue}")
     private String replyToQueue;
 
-    public WalletBalanceRequestSender(RabbitTemplate rabbitTemplate) {
+    public WalletBalanceRequestSender(RabbitTemplate rabbitTemplate, AsyncRabbitTemplate asyncRabbitTemplate) {
         this.rabbitTemplate = rabbitTemplate;
+        this.asyncRabbitTemplate = asyncRabbitTemplate;
     }
 
     public void sendBalanceRequest(Long userId) {
@@ -35,4 +46,15 @@ public class WalletBalanceRequestSender {
             return message;
         });
     }
+
+    // Correlated request-reply; the future fails with AmqpReplyTimeoutException after the reply deadline.
+    // The reply is read as WalletBalanceDTO whatever type id wallet-service puts on it.
+    public CompletableFuture<WalletBalanceDTO> fetchBalance(Long userId) {
+        WalletBalanceRequest request = WalletBalanceRequest.builder()
+                .userId(userId)
+                .build();
+
+        return asyncRabbitTemplate.convertSendAndReceiveAsType(walletExchange, walletBalanceRoutingKey, request,
+                WALLET_BALANCE_TYPE);
+    }
 }
@@ -0,0 +1,27 @@
+package com.jack.userservice.config;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.ContentTypeDelegatingMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SmartMessageConverter;
+
+// Picks the delegate by content type like its parent, and passes conversion hints on to delegates that take them,
+// so typed request-reply (convertSendAndReceiveAsType) keeps working through the delegation
+public class ContentTypeSmartMessageConverter extends ContentTypeDelegatingMessageConverter
+        implements SmartMessageConverter {
+
+    public ContentTypeSmartMessageConverter(MessageConverter defaultConverter) {
+        super(defaultConverter);
+    }
+
+    @Override
+    public Object fromMessage(Message message, Object conversionHint) throws MessageConversionException {
+        MessageProperties properties = message.getMessageProperties();
+        MessageConverter delegate = getConverterForContentType(properties != null ? properties.getContentType() : null);
+        return delegate instanceof SmartMessageConverter smart
+                ? smart.fromMessage(message, conversionHint)
+                : delegate.fromMessage(message);
+    }
+}
@@ -0,0 +1,43 @@
+package com.jack.userservice.config;
+
+import com.jack.userservice.cache.EmailBloomFilter;
+import com.jack.userservice.cache.TokenValidationCache;
+import com.jack.userservice.service.PasswordHashingService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import static com.jack.userservice.constants.MetricNames.*;
+
+// Exposes the counters our own components already keep; timers are recorded where the work happens
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder tokenValidationCacheMetrics(TokenValidationCache tokenValidationCache) {
+        return registry -> CaffeineCacheMetrics.monitor(registry, tokenValidationCache.nativeCache(), "tokenValidation");
+    }
+
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordHashingService passwordHashingService) {
+        return registry -> {
+            Gauge.builder(PASSWORD_HASHING_QUEUE_DEPTH, passwordHashingService, PasswordHashingService::getQueueDepth)
+                    .register(registry);
+            FunctionCounter.builder(PASSWORD_HASHING_REJECTED, passwordHashingService, PasswordHashingService::getRejectedCount)
+                    .register(registry);
+            Gauge.builder(PASSWORD_HASHING_WAIT, passwordHashingService, PasswordHashingService::getAverageWaitMillis)
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder emailFilterMetrics(EmailBloomFilter emailBloomFilter) {
+        return registry -> Gauge.builder(EMAIL_FILTER_FPP, emailBloomFilter, EmailBloomFilter::expectedFalsePositiveRate)
+                .description("Expected false positive rate of the email Bloom filter at its current fill")
+                .register(registry);
+    }
+}
@@ -1,20 +1,42 @@
 package com.jack.userservice.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.message.WalletBalanceRequest;
+import com.jack.userservice.message.WalletCreationMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.DefaultJackson2JavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+import java.util.Map;
+
 @Configuration
 public class RabbitMQConfig {
 
     private static final Logger logger = LoggerFactory.getLogger(RabbitMQConfig.class);
 
+    // Logical __TypeId__ values shared with wallet-service, so neither side depends on the other's class names
+    public static final String WALLET_CREATION_TYPE_ID = "walletCreation";
+    public static final String WALLET_BALANCE_REQUEST_TYPE_ID = "walletBalanceRequest";
+    public static final String WALLET_BALANCE_TYPE_ID = "walletBalance";
+
     @Value("${app.wallet.queue.create}")
     private String walletCreateQueue;
 
@@ -36,6 +58,24 @@ public class RabbitMQConfig {
     @Value("${app.wallet.routing-key.balance}")
     private String walletBalanceRoutingKey;
 
+    @Value("${app.wallet.balance-reply-timeout-ms:3000}")
+    private long balanceReplyTimeoutMs;
+
+    @Value("${app.wallet.listener.batch-size:50}")
+    private int listenerBatchSize;
+
+    @Value("${app.wallet.listener.batch-receive-timeout-ms:100}")
+    private long listenerBatchReceiveTimeoutMs;
+
+    @Value("${app.wallet.listener.concurrency:1}")
+    private int listenerConcurrency;
+
+    @Value("${app.wallet.listener.max-concurrency:1}")
+    private int listenerMaxConcurrency;
+
+    @Value("${app.wallet.listener.prefetch:250}")
+    private int listenerPrefetch;
+
     // Define queues
     @Bean
     public Queue walletCreateQueue() {
@@ -64,4 +104,61 @@ public class RabbitMQConfig {
     public Binding bindingBalanceQueue() {
         return BindingBuilder.bind(walletBalanceQueue()).to(walletExchange()).with(walletBalanceRoutingKey);
     }
+
+    // JSON instead of Java serialization. Boot applies this bean to the RabbitTemplate and listener factories.
+    // Listeners and typed replies convert to the declared type; the type id header is only a fallback.
+    // Outgoing messages are always JSON. Incoming Java-serialized messages (wallet-service not yet upgraded)
+    // are still decoded, limited to our own message and DTO classes, until every producer has moved to JSON.
+    @Bean
+    public MessageConverter messageConverter(ObjectMapper objectMapper) {
+        ContentTypeSmartMessageConverter converter = new ContentTypeSmartMessageConverter(jsonMessageConverter(objectMapper));
+        converter.addDelegate(MessageProperties.CONTENT_TYPE_SERIALIZED_OBJECT, legacySerializedMessageConverter());
+        return converter;
+    }
+
+    private static SimpleMessageConverter legacySerializedMessageConverter() {
+        SimpleMessageConverter converter = new SimpleMessageConverter();
+        converter.setAllowedListPatterns(List.of(
+                "com.jack.userservice.message.*", "com.jack.userservice.dto.*", "java.lang.*"));
+        return converter;
+    }
+
+    private static Jackson2JsonMessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
+        DefaultJackson2JavaTypeMapper typeMapper = new DefaultJackson2JavaTypeMapper();
+        typeMapper.setIdClassMapping(Map.of(
+                WALLET_CREATION_TYPE_ID, WalletCreationMessage.class,
+                WALLET_BALANCE_REQUEST_TYPE_ID, WalletBalanceRequest.class,
+                WALLET_BALANCE_TYPE_ID, WalletBalanceDTO.class));
+        typeMapper.setTrustedPackages("com.jack.userservice.message", "com.jack.userservice.dto");
+
+        Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter(objectMapper);
+        converter.setJavaTypeMapper(typeMapper);
+        return converter;
+    }
+
+    // Request-reply over RabbitMQ direct reply-to: replies come back on this connection, correlated per request
+    @Bean
+    public AsyncRabbitTemplate asyncRabbitTemplate(RabbitTemplate rabbitTemplate) {
+        AsyncRabbitTemplate asyncRabbitTemplate = new AsyncRabbitTemplate(rabbitTemplate);
+        asyncRabbitTemplate.setReceiveTimeout(balanceReplyTimeoutMs);
+        return asyncRabbitTemplate;
+    }
+
+    // Batch consumer for wallet balance replies: up to batch-size messages per delivery, acked together
+    @Bean
+    public SimpleRabbitListenerContainerFactory walletBalanceListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(listenerBatchSize);
+        // Max wait for a batch to fill before handing over a partial one
+        factory.setReceiveTimeout(listenerBatchReceiveTimeoutMs);
+        // Safe to scale out: cache writes are version-guarded, so consumer ordering does not matter
+        factory.setConcurrentConsumers(listenerConcurrency);
+        factory.setMaxConcurrentConsumers(Math.max(listenerConcurrency, listenerMaxConcurrency));
+        factory.setPrefetchCount(Math.max(listenerPrefetch, listenerBatchSize));
+        return factory;
+    }
 }
@@ -1,25 +1,73 @@
 package com.jack.userservice.config;
 
+import com.jack.userservice.cache.EmailBloomFilter;
+import com.jack.userservice.cache.TokenValidationCache;
 import com.jack.userservice.dto.UsersDTO;
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.listener.UserCacheInvalidationListener;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
 
+    @Value("${app.users.cache.invalidation-channel}")
+    private String userCacheInvalidationChannel;
+
+    @Value("${app.users.email-filter.channel}")
+    private String emailFilterChannel;
+
+    @Value("${app.auth.validation-cache.invalidation-channel}")
+    private String tokenValidationInvalidationChannel;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    // "users:" profile cache
     @Bean
     public RedisTemplate<String, UsersDTO> redisTemplate(RedisConnectionFactory connectionFactory) {
-        RedisTemplate<String, UsersDTO> redisTemplate = new RedisTemplate<>();
+        return typedRedisTemplate(connectionFactory, UsersDTO.class);
+    }
+
+    // "walletBalance:" cache written from wallet-service replies
+    @Bean
+    public RedisTemplate<String, WalletBalanceDTO> walletBalanceRedisTemplate(RedisConnectionFactory connectionFactory) {
+        return typedRedisTemplate(connectionFactory, WalletBalanceDTO.class);
+    }
+
+    // Delivers user cache invalidations, newly registered emails and token evictions published by other instances
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                       UserCacheInvalidationListener invalidationListener,
+                                                                       EmailBloomFilter emailBloomFilter,
+                                                                       TokenValidationCache tokenValidationCache) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        if (virtualThreadsEnabled) {
+            container.setTaskExecutor(new VirtualThreadTaskExecutor("redis-listener-"));
+        }
+        container.addMessageListener(invalidationListener, new ChannelTopic(userCacheInvalidationChannel));
+        container.addMessageListener(emailBloomFilter, new ChannelTopic(emailFilterChannel));
+        container.addMessageListener(tokenValidationCache, new ChannelTopic(tokenValidationInvalidationChannel));
+        return container;
+    }
+
+    private <T> RedisTemplate<String, T> typedRedisTemplate(RedisConnectionFactory connectionFactory, Class<T> type) {
+        RedisTemplate<String, T> redisTemplate = new RedisTemplate<>();
         redisTemplate.setConnectionFactory(connectionFactory);
 
+        VersionedJsonRedisSerializer<T> valueSerializer = new VersionedJsonRedisSerializer<>(type);
         redisTemplate.setKeySerializer(new StringRedisSerializer());
-        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisTemplate.setValueSerializer(valueSerializer);
         redisTemplate.setHashKeySerializer(new StringRedisSerializer());
-        redisTemplate.setHashValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisTemplate.setHashValueSerializer(valueSerializer);
 
         return redisTemplate;
     }
@@ -0,0 +1,77 @@
+package com.jack.userservice.config;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+// Redis value serializer bound to a single type, so no @class metadata is stored.
+// Values are a format version byte followed by compact JSON (nulls omitted).
+// Entries written by GenericJackson2JsonRedisSerializer (plain JSON starting with '{') are still
+// readable, so existing keys migrate as they are rewritten or expire.
+public class VersionedJsonRedisSerializer<T> implements RedisSerializer<T> {
+
+    // Bump when the payload layout changes, keeping a read branch for older versions
+    static final byte FORMAT_V1 = 1;
+
+    private static final byte LEGACY_JSON_START = '{';
+
+    private final Class<T> type;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    public VersionedJsonRedisSerializer(Class<T> type) {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                // Tolerates the legacy @class property and fields added by newer writers
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.type = type;
+        this.reader = objectMapper.readerFor(type);
+        this.writer = objectMapper.writerFor(type);
+    }
+
+    @Override
+    public byte[] serialize(T value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+            out.write(FORMAT_V1);
+            writer.writeValue(out, value);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new SerializationException("Could not write " + type.getSimpleName() + " to Redis", e);
+        }
+    }
+
+    @Override
+    public T deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+
+        try {
+            return switch (bytes[0]) {
+                case FORMAT_V1 -> reader.readValue(bytes, 1, bytes.length - 1);
+                case LEGACY_JSON_START -> reader.readValue(bytes);
+                default -> throw new SerializationException(
+                        "Unsupported Redis value format version " + bytes[0] + " for " + type.getSimpleName());
+            };
+        } catch (IOException e) {
+            throw new SerializationException("Could not read " + type.getSimpleName() + " from Redis", e);
+        }
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return type;
+    }
+}
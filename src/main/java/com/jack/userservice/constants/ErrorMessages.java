@@ -11,11 +11,25 @@ public class ErrorMessages {
     public static final String INVALID_EMAIL_OR_PASSWORD = "Invalid email or password.";
     public static final String FAILED_WALLET_CREATION = "Failed to initiate wallet creation. Please try again.";
     public static final String UNAUTHORIZED_REQUEST = "Failed to get an authorize request. Please try again.";
+    public static final String AUTH_SERVICE_UNAVAILABLE = "Authentication service is temporarily unavailable. Please try again.";
+    public static final String PASSWORD_HASHING_BUSY = "Too many credential checks in progress. Please try again shortly.";
+    public static final String BATCH_SIZE_EXCEEDED = "Too many user IDs requested in one batch.";
+    public static final String INVALID_PAGE_CURSOR = "Invalid page cursor.";
+    public static final String USER_LISTING_DISABLED = "User listing is disabled.";
+    public static final String USER_IMPORT_DISABLED = "Bulk user import is disabled.";
+    public static final String USER_IMPORT_READ_FAILED = "Failed to read the import file.";
+    public static final String USER_EXPORT_DISABLED = "User export is disabled.";
+    public static final String ADMIN_KEY_REQUIRED = "A valid admin key is required.";
 
     // API Paths for Error Context
+    public static final String USERS_API_PATH = "/api/users";
     public static final String GET_USER_API_PATH = "GET /api/users/";
+    public static final String GET_USERS_API_PATH = "GET /api/users";
     public static final String POST_USER_API_PATH = "POST /api/users";
     public static final String PUT_USER_API_PATH = "PUT /api/users/";
     public static final String DELETE_USER_API_PATH = "DELETE /api/users";
+    public static final String GET_EXPORT_API_PATH = "GET /api/users/export";
+    public static final String POST_IMPORT_API_PATH = "POST /api/users/import";
     public static final String POST_LOGIN_API_PATH = "POST /api/users/login";
+    public static final String GET_LOGOUT_API_PATH = "GET /api/users/logout";
 }
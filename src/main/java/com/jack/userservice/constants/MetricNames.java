@@ -0,0 +1,29 @@
+package com.jack.userservice.constants;
+
+public class MetricNames {
+    private MetricNames() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    // Timers (published with percentile histograms)
+    public static final String REGISTER_PHASE = "users.register.phase";
+    public static final String TOKEN_VALIDATION = "users.auth.token.validation";
+    public static final String REDIS_BALANCE_READ = "users.redis.balance.read";
+    public static final String WALLET_BALANCE_LISTENER = "users.listener.wallet.balance";
+    public static final String OUTBOX_RELAY_PUBLISH = "users.outbox.relay.publish";
+    public static final String OUTBOX_LATENCY = "users.outbox.latency";  // Row created -> publish confirmed
+
+    // Gauges
+    public static final String OUTBOX_BACKLOG = "users.outbox.backlog";
+    public static final String OUTBOX_OLDEST_AGE = "users.outbox.oldest.age";
+    public static final String PASSWORD_HASHING_QUEUE_DEPTH = "users.password.hashing.queue.depth";
+    public static final String PASSWORD_HASHING_REJECTED = "users.password.hashing.rejected";
+    public static final String PASSWORD_HASHING_WAIT = "users.password.hashing.wait.avg";
+    public static final String EMAIL_FILTER_FPP = "users.email.filter.fpp";
+
+    // Tag keys
+    public static final String TAG_PHASE = "phase";
+    public static final String TAG_OPERATION = "operation";
+    public static final String TAG_PATH = "path";
+    public static final String TAG_AGGREGATE = "aggregate";
+}
@@ -7,6 +7,7 @@ public class SecurityConstants {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
     public static final String BEARER_PREFIX = "Bearer ";
+    public static final String ADMIN_KEY_HEADER = "X-Admin-Key";
     private static final String[] PUBLIC_URLS = {
             "/api/auth/**",
             "/public/**",
@@ -1,21 +1,34 @@
 package com.jack.userservice.controller;
 
-import com.jack.userservice.client.AuthServiceClient;
+import com.jack.userservice.client.AuthServiceGateway;
 import com.jack.userservice.constants.ErrorMessages;
 import com.jack.userservice.constants.SecurityConstants;
 import com.jack.userservice.dto.*;
 import com.jack.userservice.entity.Users;
 import com.jack.userservice.exception.CustomErrorException;
 import com.jack.userservice.mapper.UsersMapper;
+import com.jack.userservice.security.AdminKeyVerifier;
+import com.jack.userservice.service.AuthTokenService;
+import com.jack.userservice.service.UserExportService;
+import com.jack.userservice.service.UserImportFormat;
+import com.jack.userservice.service.UserImportService;
 import com.jack.userservice.service.UserService;
 import feign.FeignException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.InputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import static com.jack.userservice.constants.ErrorMessages.GET_USER_API_PATH;
 import static com.jack.userservice.constants.ErrorMessages.USER_NOT_FOUND;
@@ -28,12 +41,22 @@ public class UserController {
 
     private final UserService userService;
     private final UsersMapper usersMapper;
-    private final AuthServiceClient authServiceClient;
-
-    public UserController(UserService userService, UsersMapper usersMapper, AuthServiceClient authServiceClient) {
+    private final AuthServiceGateway authServiceGateway;
+    private final AuthTokenService authTokenService;
+    private final UserImportService userImportService;
+    private final UserExportService userExportService;
+    private final AdminKeyVerifier adminKeyVerifier;
+
+    public UserController(UserService userService, UsersMapper usersMapper, AuthServiceGateway authServiceGateway,
+                          AuthTokenService authTokenService, UserImportService userImportService,
+                          UserExportService userExportService, AdminKeyVerifier adminKeyVerifier) {
         this.userService = userService;
         this.usersMapper = usersMapper;
-        this.authServiceClient = authServiceClient;
+        this.authServiceGateway = authServiceGateway;
+        this.authTokenService = authTokenService;
+        this.userImportService = userImportService;
+        this.userExportService = userExportService;
+        this.adminKeyVerifier = adminKeyVerifier;
     }
 
     @PostMapping("/register")
@@ -42,6 +65,32 @@ public class UserController {
         return ResponseEntity.ok(userResponse);
     }
 
+    // Streams the body (NDJSON or CSV) straight into batched inserts; never buffers the whole file
+    @PostMapping(value = "/import", consumes = {MediaType.APPLICATION_NDJSON_VALUE, UserImportFormat.TEXT_CSV_VALUE})
+    public ResponseEntity<UserImportResultDTO> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = SecurityConstants.ADMIN_KEY_HEADER, required = false) String adminKey,
+            InputStream body) {
+        adminKeyVerifier.verify(adminKey, ErrorMessages.POST_IMPORT_API_PATH);
+        logger.info("Bulk user import started ({})", contentType);
+        UserImportResultDTO result = userImportService.importUsers(body, UserImportFormat.fromContentType(contentType));
+        return ResponseEntity.ok(result);
+    }
+
+    // Written page by page from an async thread, so the export size never shows up on the heap
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(defaultValue = "false") boolean includeBalances,
+            @RequestHeader(value = SecurityConstants.ADMIN_KEY_HEADER, required = false) String adminKey) {
+        adminKeyVerifier.verify(adminKey, ErrorMessages.GET_EXPORT_API_PATH);
+        userExportService.checkEnabled();
+        logger.info("User export started (balances: {})", includeBalances);
+        StreamingResponseBody body = out -> userExportService.exportUsers(out, includeBalances);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @PostMapping("/verify-password")
     public ResponseEntity<Boolean> verifyPassword(@RequestBody AuthRequestDTO authRequestDTO) {
         boolean isPasswordValid = userService.verifyPassword(authRequestDTO.getEmail(), authRequestDTO.getPassword());
@@ -90,16 +139,42 @@ public class UserController {
         return ResponseEntity.ok(userDTO);
     }
 
+    // Waits for a fresh balance from wallet-service without holding a request thread (async servlet)
+    @GetMapping(value = "/{id}", params = "fresh=true")
+    public CompletableFuture<ResponseEntity<UsersDTO>> getUserByIdWithFreshBalance(@PathVariable Long id) {
+        logger.info("Fetching user with ID: {} and a fresh balance", id);
+        return userService.getUserWithFreshBalance(id).thenApply(ResponseEntity::ok);
+    }
+
+    // Keyset pagination: pass nextCursor back as cursor; deep pages cost the same as the first
+    @GetMapping
+    public ResponseEntity<UsersPageDTO> listUsers(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(required = false) Integer limit,
+                                                  @RequestParam(required = false) String emailPrefix,
+                                                  @RequestParam(required = false) String name) {
+        logger.info("Listing users (emailPrefix: {}, name: {})", emailPrefix, name);
+        UsersPageDTO usersPage = userService.listUsers(cursor, limit, emailPrefix, name);
+        return ResponseEntity.ok(usersPage);
+    }
+
+    @GetMapping(params = "ids")
+    public ResponseEntity<UsersBatchDTO> getUsersByIds(@RequestParam List<Long> ids) {
+        logger.info("Fetching {} users by ID", ids.size());
+        UsersBatchDTO usersBatch = userService.getUsersWithBalance(ids);
+        return ResponseEntity.ok(usersBatch);
+    }
+
     @PostMapping("/login")
     public ResponseEntity<AuthResponseDTO> login(@RequestBody AuthRequestDTO loginRequest) {
         logger.info("User login attempt with email: {}", loginRequest.getEmail());
 
-        if (!userService.verifyPassword(loginRequest.getEmail(), loginRequest.getPassword())) {
+        Optional<Users> user = userService.login(loginRequest.getEmail(), loginRequest.getPassword());
+        if (user.isEmpty()) {
             logger.error("Invalid credentials for email: {}", loginRequest.getEmail());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(null);
         }
 
-        AuthResponseDTO authResponse = authServiceClient.login(loginRequest);
+        AuthResponseDTO authResponse = authTokenService.issueToken(user.get(), loginRequest.getPassword());
         logger.info("User with email: {} logged in successfully.", loginRequest.getEmail());
         return ResponseEntity.ok(authResponse);
     }
@@ -110,7 +185,16 @@ public class UserController {
 
         if (token != null && token.startsWith(SecurityConstants.BEARER_PREFIX)) {
             try {
-                authServiceClient.logout(token);
+                boolean revokedLocally = authTokenService.invalidateToken(token);
+                if (!authServiceGateway.logout(token)) {
+                    if (!revokedLocally) {
+                        // Remote validation: the token stays valid until auth-service records the logout
+                        throw new CustomErrorException(HttpStatus.SERVICE_UNAVAILABLE,
+                                ErrorMessages.AUTH_SERVICE_UNAVAILABLE, ErrorMessages.GET_LOGOUT_API_PATH);
+                    }
+                    // Revoked here already; auth-service is told once it is reachable again
+                    return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+                }
                 logger.info("Logout request sent to auth-service with token: {}", token);
                 return ResponseEntity.ok().build();
             } catch (FeignException e) {
@@ -124,7 +208,7 @@ public class UserController {
     }
 
     private void validateToken(String token, Long userId, String path) {
-        if (!authServiceClient.validateToken(token, userId)) {
+        if (!authTokenService.validateToken(token, userId)) {
             logger.error("Unauthorized request for user with ID: {}", userId);
             throw new CustomErrorException(HttpStatus.UNAUTHORIZED, ErrorMessages.UNAUTHORIZED_REQUEST, path + userId);
         }
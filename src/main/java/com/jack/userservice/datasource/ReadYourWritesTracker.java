@@ -0,0 +1,79 @@
+package com.jack.userservice.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+// Runs user reads in read-only transactions (replica-eligible), except for users written recently
+// by this instance, which are read from the primary until replication has had time to catch up
+@Component
+public class ReadYourWritesTracker {
+    private static final String ID_KEY_PREFIX = "id:";
+    private static final String EMAIL_KEY_PREFIX = "email:";
+
+    private final Cache<String, Boolean> recentWrites;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryTransaction;
+
+    public ReadYourWritesTracker(PlatformTransactionManager transactionManager,
+                                 @Value("${app.datasource.replica.read-your-writes-ms:5000}") long windowMs) {
+        this.recentWrites = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(windowMs))
+                .build();
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Call inside the writing transaction so the window already covers the commit
+    public void recordWrite(Long userId, String... emails) {
+        recentWrites.put(ID_KEY_PREFIX + userId, Boolean.TRUE);
+        for (String email : emails) {
+            if (email != null) {
+                recentWrites.put(emailKey(email), Boolean.TRUE);
+            }
+        }
+    }
+
+    public <T> T readUser(Long userId, Supplier<T> query) {
+        return read(recentWrites.getIfPresent(ID_KEY_PREFIX + userId) != null, query);
+    }
+
+    public <T> T readUsers(Collection<Long> userIds, Supplier<T> query) {
+        boolean recentlyWritten = userIds.stream()
+                .anyMatch(userId -> recentWrites.getIfPresent(ID_KEY_PREFIX + userId) != null);
+        return read(recentlyWritten, query);
+    }
+
+    public <T> T readByEmail(String email, Supplier<T> query) {
+        return read(email != null && recentWrites.getIfPresent(emailKey(email)) != null, query);
+    }
+
+    // For reads whose result is shared (e.g. written to Redis): the read-your-writes window is per instance,
+    // so a replica read here could publish a row older than a write made on another instance
+    public <T> T readFromPrimary(Supplier<T> query) {
+        return read(true, query);
+    }
+
+    // Listings and searches span many users, so they always tolerate replica lag
+    public <T> T readUnscoped(Supplier<T> query) {
+        return read(false, query);
+    }
+
+    private <T> T read(boolean recentlyWritten, Supplier<T> query) {
+        TransactionTemplate transaction = recentlyWritten ? primaryTransaction : readOnlyTransaction;
+        return transaction.execute(status -> query.get());
+    }
+
+    private static String emailKey(String email) {
+        return EMAIL_KEY_PREFIX + email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,125 @@
+package com.jack.userservice.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Sends read-only transactions to a healthy replica (round robin) and everything else to the primary.
+// Must sit behind a LazyConnectionDataSourceProxy so the read-only flag is known when the connection is fetched.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    public static final String PRIMARY = "primary";
+
+    private final DataSource primary;
+    private final Map<String, DataSource> replicas;
+    private final int validationTimeoutSeconds;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private volatile List<String> healthyReplicas = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicaDataSources, int validationTimeoutSeconds) {
+        this.primary = primary;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+
+        Map<String, DataSource> replicasByKey = new LinkedHashMap<>();
+        for (int i = 0; i < replicaDataSources.size(); i++) {
+            replicasByKey.put("replica-" + i, replicaDataSources.get(i));
+        }
+        this.replicas = Map.copyOf(replicasByKey);
+
+        Map<Object, Object> targets = new HashMap<>(replicasByKey);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicaHealth();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+
+        List<String> healthy = healthyReplicas;
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(nextReplica.getAndIncrement(), healthy.size()));
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        String key = (String) determineCurrentLookupKey();
+        if (PRIMARY.equals(key)) {
+            return primary.getConnection();
+        }
+
+        try {
+            return replicas.get(key).getConnection();
+        } catch (SQLException e) {
+            // Take the replica out of rotation until the next health check sees it again
+            logger.warn("Replica {} unavailable, reading from primary: {}", key, e.getMessage());
+            markUnhealthy(key);
+            return primary.getConnection();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-ms:5000}")
+    public void checkReplicaHealth() {
+        List<String> healthy = new ArrayList<>();
+        for (Map.Entry<String, DataSource> replica : replicas.entrySet()) {
+            if (isValid(replica.getValue())) {
+                healthy.add(replica.getKey());
+            }
+        }
+        healthy.sort(null);
+
+        if (!healthy.equals(healthyReplicas)) {
+            logger.info("Healthy read replicas: {} of {}", healthy, replicas.size());
+        }
+        healthyReplicas = List.copyOf(healthy);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private boolean isValid(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private synchronized void markUnhealthy(String key) {
+        List<String> healthy = new ArrayList<>(healthyReplicas);
+        if (healthy.remove(key)) {
+            healthyReplicas = List.copyOf(healthy);
+        }
+    }
+}
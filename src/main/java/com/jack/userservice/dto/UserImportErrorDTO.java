@@ -0,0 +1,18 @@
+package com.jack.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportErrorDTO {
+    private long line;  // 1-based line in the uploaded file
+    private String email;  // Null when the row could not be parsed
+    private String reason;
+}
@@ -0,0 +1,21 @@
+package com.jack.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResultDTO {
+    private long imported;  // Users created (wallet creation queued in the outbox)
+    private long failed;  // Rows rejected, whether or not they are listed in errors
+    private List<UserImportErrorDTO> errors;  // First failures, capped by app.users.import.max-reported-errors
+    private boolean errorsTruncated;  // True when more rows failed than are listed
+}
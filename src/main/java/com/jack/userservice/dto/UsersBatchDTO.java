@@ -0,0 +1,19 @@
+package com.jack.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsersBatchDTO {
+    private List<UsersDTO> users;  // Found users, in request order
+    private List<Long> missingIds;  // Requested IDs with no matching user
+}
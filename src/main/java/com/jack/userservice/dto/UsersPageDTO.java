@@ -0,0 +1,19 @@
+package com.jack.userservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UsersPageDTO {
+    private List<UsersDTO> users;  // Ordered by ID, without balances
+    private String nextCursor;  // Opaque token for the next page; null on the last page
+}
@@ -14,4 +14,5 @@ public class WalletBalanceDTO implements Serializable {
     private Long userId;
     private double usdBalance;
     private double btcBalance;
+    private Long version;  // Monotonic per user, assigned by wallet-service; newer versions win in the cache
 }
@@ -0,0 +1,44 @@
+package com.jack.userservice.export;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.repository.UserSummary;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+// Writes users as NDJSON straight to the response stream; holds no rows, so memory does not grow with the export
+public class UserExportWriter implements AutoCloseable {
+    private final JsonGenerator generator;
+
+    public UserExportWriter(JsonFactory jsonFactory, OutputStream out) throws IOException {
+        this.generator = jsonFactory.createGenerator(out);
+        // The servlet container owns the response stream
+        this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    // balance may be null when balances were not requested or are not cached
+    public void write(UserSummary user, WalletBalanceDTO balance) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", user.id());
+        generator.writeStringField("name", user.name());
+        generator.writeStringField("email", user.email());
+        if (balance != null) {
+            generator.writeNumberField("usdBalance", balance.getUsdBalance());
+            generator.writeNumberField("btcBalance", balance.getBtcBalance());
+        }
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+    }
+
+    // Push a page to the client so it is not held in the generator's buffer
+    public void flush() throws IOException {
+        generator.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+}
@@ -0,0 +1,33 @@
+package com.jack.userservice.listener;
+
+import com.jack.userservice.service.UsersCacheService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+@Component
+public class UserCacheInvalidationListener implements MessageListener {
+    private static final Logger logger = LoggerFactory.getLogger(UserCacheInvalidationListener.class);
+
+    private final UsersCacheService usersCacheService;
+
+    public UserCacheInvalidationListener(UsersCacheService usersCacheService) {
+        this.usersCacheService = usersCacheService;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+
+        try {
+            usersCacheService.evictLocal(Long.valueOf(body));
+            logger.debug("Evicted user ID: {} from local cache on invalidation message.", body);
+        } catch (NumberFormatException e) {
+            logger.error("Received invalid user cache invalidation message: {}", body);
+        }
+    }
+}
@@ -1,46 +1,71 @@
 package com.jack.userservice.listener;
 
+import com.jack.userservice.cache.BalanceRefreshCoordinator;
 import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.metrics.PhaseTimers;
+import com.jack.userservice.service.WalletBalanceRedisService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.jack.userservice.constants.MetricNames.TAG_PHASE;
+import static com.jack.userservice.constants.MetricNames.WALLET_BALANCE_LISTENER;
+
 @Component
 public class WalletBalanceResponseListener {
     private static final Logger logger = LoggerFactory.getLogger(WalletBalanceResponseListener.class);
 
-    private final RedisTemplate<String, WalletBalanceDTO> redisTemplate;
+    private final WalletBalanceRedisService walletBalanceRedisService;
+    private final BalanceRefreshCoordinator balanceRefreshCoordinator;
+    private final PhaseTimers phaseTimers;
 
-    @Value("${app.wallet.cache-prefix}")
-    private String cachePrefix;
-
-    public WalletBalanceResponseListener(RedisTemplate<String, WalletBalanceDTO> redisTemplate) {
-        this.redisTemplate = redisTemplate;
+    public WalletBalanceResponseListener(WalletBalanceRedisService walletBalanceRedisService,
+                                         BalanceRefreshCoordinator balanceRefreshCoordinator,
+                                         PhaseTimers phaseTimers) {
+        this.walletBalanceRedisService = walletBalanceRedisService;
+        this.balanceRefreshCoordinator = balanceRefreshCoordinator;
+        this.phaseTimers = phaseTimers;
     }
 
-    @RabbitListener(queues = "${app.wallet.reply-to-queue}")
-    public void receiveWalletBalance(WalletBalanceDTO walletBalance) {
-        if (walletBalance != null && walletBalance.getUserId() != null) {
-            String cacheKey = cachePrefix + walletBalance.getUserId();
+    // The whole batch is acked once this returns; an exception requeues it
+    @RabbitListener(queues = "${app.wallet.reply-to-queue}", containerFactory = "walletBalanceListenerContainerFactory")
+    public void receiveWalletBalances(List<WalletBalanceDTO> walletBalances) {
+        phaseTimers.record(WALLET_BALANCE_LISTENER, TAG_PHASE, "batch", () -> processBatch(walletBalances));
+    }
 
-            // Check if the balance is already cached
-            WalletBalanceDTO cachedBalance = redisTemplate.opsForValue().get(cacheKey);
+    private void processBatch(List<WalletBalanceDTO> walletBalances) {
+        // Several updates for the same user collapse to the newest version (or the last received if unversioned)
+        Map<Long, WalletBalanceDTO> latestByUser = new LinkedHashMap<>();
 
-            if (cachedBalance != null) {
-                logger.info("Fetched cached balance for user ID: {} - USD: {}, BTC: {}",
-                        cachedBalance.getUserId(), cachedBalance.getUsdBalance(), cachedBalance.getBtcBalance());
+        for (WalletBalanceDTO walletBalance : walletBalances) {
+            if (walletBalance != null && walletBalance.getUserId() != null) {
+                latestByUser.merge(walletBalance.getUserId(), walletBalance, WalletBalanceResponseListener::newer);
+            } else {
+                logger.error("Received invalid or null wallet balance response: {}", walletBalance);
             }
+        }
+
+        if (latestByUser.isEmpty()) {
+            return;
+        }
 
-            // Update Redis with the new balance
-            redisTemplate.opsForValue().set(cacheKey, walletBalance);
-            logger.info("Updated Redis cache with new balance for user ID: {} - USD: {}, BTC: {}",
-                    walletBalance.getUserId(), walletBalance.getUsdBalance(), walletBalance.getBtcBalance());
+        // Update Redis with the new balances in a single pipelined round trip
+        walletBalanceRedisService.saveBalances(latestByUser.values());
+        latestByUser.keySet().forEach(balanceRefreshCoordinator::onBalanceReceived);
+        logger.info("Updated Redis cache with {} balances from a batch of {} replies.",
+                latestByUser.size(), walletBalances.size());
+    }
 
-        } else {
-            logger.error("Received invalid or null wallet balance response: {}", walletBalance);
+    private static WalletBalanceDTO newer(WalletBalanceDTO current, WalletBalanceDTO candidate) {
+        if (current.getVersion() != null && candidate.getVersion() != null
+                && candidate.getVersion() < current.getVersion()) {
+            return current;
         }
+        return candidate;
     }
 }
@@ -0,0 +1,39 @@
+package com.jack.userservice.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+// Histogram timers keyed by metric name and one tag, built once and reused on the hot path
+@Component
+public class PhaseTimers {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public PhaseTimers(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public <T> T record(String name, String tagKey, String tagValue, Supplier<T> work) {
+        return timer(name, tagKey, tagValue).record(work);
+    }
+
+    public void record(String name, String tagKey, String tagValue, Runnable work) {
+        timer(name, tagKey, tagValue).record(work);
+    }
+
+    public Timer timer(String name, String tagKey, String tagValue) {
+        return timers.computeIfAbsent(new TimerKey(name, tagKey, tagValue), key -> Timer.builder(key.name())
+                .tag(key.tagKey(), key.tagValue())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private record TimerKey(String name, String tagKey, String tagValue) {
+    }
+}
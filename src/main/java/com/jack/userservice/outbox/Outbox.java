@@ -9,9 +9,12 @@ import lombok.Setter;
 import java.time.LocalDateTime;
 
 @Entity
+// SQL/schema.sql partitions the table by created_at and defines idx_outbox_unprocessed as a partial index on
+// unprocessed rows. The entity declares the same name so ddl-auto leaves that index alone, while a database
+// built by Hibernate alone still gets a (processed, id) index for the relay's claim query.
 @Table(name = "outbox", indexes = {
         @Index(name = "idx_aggregate_type", columnList = "aggregate_type"),
-        @Index(name = "idx_processed", columnList = "processed")
+        @Index(name = "idx_outbox_unprocessed", columnList = "processed, id")
 })
 @Getter
 @Setter
@@ -41,4 +44,11 @@ public class Outbox {
 
     @Column(name = "processed_at")
     private LocalDateTime processedAt;
+
+    // Set together with processed = true when the row could not be relayed and was dead-lettered
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
 }
@@ -18,4 +18,6 @@ public class OutboxDTO {
     private LocalDateTime createdAt;
     private boolean processed;
     private LocalDateTime processedAt;
+    private LocalDateTime failedAt;
+    private String lastError;
 }
@@ -11,7 +11,9 @@ public class OutboxMapper {
                 dto.getPayload(),
                 dto.getCreatedAt(),
                 dto.isProcessed(),
-                dto.getProcessedAt()
+                dto.getProcessedAt(),
+                dto.getFailedAt(),
+                dto.getLastError()
         );
     }
 
@@ -24,7 +26,9 @@ public class OutboxMapper {
                 entity.getPayload(),
                 entity.getCreatedAt(),
                 entity.isProcessed(),
-                entity.getProcessedAt()
+                entity.getProcessedAt(),
+                entity.getFailedAt(),
+                entity.getLastError()
         );
     }
 }
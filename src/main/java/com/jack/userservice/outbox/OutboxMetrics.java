@@ -0,0 +1,54 @@
+package com.jack.userservice.outbox;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.jack.userservice.constants.MetricNames.OUTBOX_BACKLOG;
+import static com.jack.userservice.constants.MetricNames.OUTBOX_OLDEST_AGE;
+
+// Outbox health gauges. Scrapes read cached values; the database is queried on a fixed schedule instead.
+@Component
+public class OutboxMetrics {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxMetrics.class);
+
+    private final OutboxRepository outboxRepository;
+    private final AtomicLong backlog = new AtomicLong();
+    private volatile LocalDateTime oldestUnprocessedAt;
+
+    public OutboxMetrics(OutboxRepository outboxRepository, MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+
+        Gauge.builder(OUTBOX_BACKLOG, backlog, AtomicLong::get)
+                .description("Outbox rows not yet relayed to RabbitMQ")
+                .register(meterRegistry);
+        // Age is computed at scrape time so it keeps growing between refreshes while the relay is stuck
+        TimeGauge.builder(OUTBOX_OLDEST_AGE, this, TimeUnit.MILLISECONDS, OutboxMetrics::oldestAgeMillis)
+                .description("Age of the oldest unprocessed outbox row")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.metrics-refresh-ms:15000}")
+    public void refresh() {
+        try {
+            backlog.set(outboxRepository.countByProcessedFalse());
+            oldestUnprocessedAt = outboxRepository.findOldestUnprocessedCreatedAt();
+        } catch (Exception e) {
+            logger.warn("Failed to refresh outbox metrics: {}", e.getMessage());
+        }
+    }
+
+    private double oldestAgeMillis() {
+        LocalDateTime oldest = oldestUnprocessedAt;
+        return oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() : 0;
+    }
+}
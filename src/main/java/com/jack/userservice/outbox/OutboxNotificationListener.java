@@ -0,0 +1,141 @@
+package com.jack.userservice.outbox;
+
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Wakes the outbox relay as soon as a transaction inserting outbox rows commits (trigger in SQL/schema.sql).
+// Holds one dedicated connection outside the pool: LISTEN is session state and a pooled connection could be
+// handed to someone else or recycled, silently dropping the subscription.
+@Component
+@ConditionalOnProperty(name = "app.outbox.notify.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxNotificationListener {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxNotificationListener.class);
+
+    public static final String CHANNEL = "outbox_inserted";
+
+    private final OutboxService outboxService;
+    private final DataSourceProperties dataSourceProperties;
+
+    @Value("${app.outbox.notify.wait-timeout-ms:10000}")
+    private int waitTimeoutMs;
+
+    @Value("${app.outbox.notify.reconnect-delay-ms:1000}")
+    private long reconnectDelayMs;
+
+    @Value("${app.outbox.notify.max-reconnect-delay-ms:30000}")
+    private long maxReconnectDelayMs;
+
+    private volatile boolean running;
+    private volatile Thread listenerThread;
+    private volatile Connection connection;
+
+    public OutboxNotificationListener(OutboxService outboxService, DataSourceProperties dataSourceProperties) {
+        this.outboxService = outboxService;
+        this.dataSourceProperties = dataSourceProperties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::listenLoop, "outbox-notify");
+        thread.setDaemon(true);
+        listenerThread = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        Thread thread = listenerThread;
+        if (thread != null) {
+            thread.interrupt();
+        }
+        closeQuietly(connection);
+    }
+
+    private void listenLoop() {
+        long delay = reconnectDelayMs;
+        while (running) {
+            try (Connection conn = openConnection()) {
+                connection = conn;
+                PGConnection pgConnection = conn.unwrap(PGConnection.class);
+                listen(conn);
+                logger.info("Listening for outbox notifications on channel {}", CHANNEL);
+                delay = reconnectDelayMs;
+
+                // Rows inserted while we were not listening have no pending notification
+                outboxService.requestRelay();
+
+                while (running) {
+                    // Blocks on the socket; an empty result just means the timeout passed with nothing inserted
+                    PGNotification[] notifications = pgConnection.getNotifications(waitTimeoutMs);
+                    if (notifications != null && notifications.length > 0) {
+                        outboxService.requestRelay();
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    break;
+                }
+                logger.warn("Outbox notification connection lost, reconnecting in {} ms: {}", delay, e.getMessage());
+            } finally {
+                connection = null;
+            }
+
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            delay = Math.min(delay * 2, maxReconnectDelayMs);
+        }
+        logger.info("Outbox notification listener stopped");
+    }
+
+    // Not the pooled DataSource: with replica routing enabled the primary is the only place the trigger fires
+    private Connection openConnection() throws SQLException {
+        Connection conn = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+        conn.setAutoCommit(true);
+        return conn;
+    }
+
+    private void listen(Connection conn) throws SQLException {
+        try (Statement statement = conn.createStatement()) {
+            statement.execute("LISTEN " + CHANNEL);
+            try (ResultSet resultSet = statement.executeQuery(
+                    "SELECT 1 FROM pg_trigger WHERE tgname = 'outbox_inserted_notify' AND NOT tgisinternal")) {
+                if (!resultSet.next()) {
+                    logger.warn("Trigger outbox_inserted_notify is missing; the outbox relay falls back to polling");
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) {
+            return;
+        }
+        try {
+            conn.close();
+        } catch (SQLException e) {
+            // Closing only to unblock the listener thread
+        }
+    }
+}
@@ -2,11 +2,38 @@ package com.jack.userservice.outbox;
 
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface OutboxRepository extends JpaRepository<Outbox, Long> {
-    List<Outbox> findByProcessedFalse();
+
+    // Row locks are held until the surrounding transaction ends; rows claimed by another relay are skipped
+    @Query(value = "SELECT * FROM outbox WHERE processed = false ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Outbox> claimUnprocessed(@Param("limit") int limit);
+
+    // The created_at bound lets PostgreSQL prune outbox partitions older than the page instead of probing each one
+    @Modifying
+    @Query("UPDATE Outbox o SET o.processed = true, o.processedAt = :processedAt "
+            + "WHERE o.id IN :ids AND o.createdAt >= :oldestCreatedAt")
+    int markProcessed(@Param("ids") List<Long> ids, @Param("oldestCreatedAt") LocalDateTime oldestCreatedAt,
+                      @Param("processedAt") LocalDateTime processedAt);
+
+    // Dead-letters a row in place: it leaves the relay's working set but stays queryable via failed_at
+    @Modifying
+    @Query("UPDATE Outbox o SET o.processed = true, o.processedAt = :failedAt, o.failedAt = :failedAt, "
+            + "o.lastError = :error WHERE o.id = :id AND o.createdAt = :createdAt")
+    int markFailed(@Param("id") Long id, @Param("createdAt") LocalDateTime createdAt,
+                   @Param("failedAt") LocalDateTime failedAt, @Param("error") String error);
+
+    long countByProcessedFalse();
+
+    @Query("SELECT MIN(o.createdAt) FROM Outbox o WHERE o.processed = false")
+    LocalDateTime findOldestUnprocessedCreatedAt();
 }
@@ -0,0 +1,186 @@
+package com.jack.userservice.outbox;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Keeps the outbox small: creates the daily created_at partitions ahead of time, detaches fully processed
+// partitions past the retention window (dropped, or moved to an archive schema), and deletes old processed rows
+// from the default partition in bounded batches. Every DDL statement runs under a short lock_timeout and is
+// simply retried on the next run, so a busy relay is never stalled behind it.
+@Component
+@ConditionalOnProperty(name = "app.outbox.retention.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRetentionJob {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRetentionJob.class);
+
+    static final String PARTITION_PREFIX = "outbox_p";
+    static final String DEFAULT_PARTITION = "outbox_default";
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARTITION_PREFIX + "(\\d{8})");
+    private static final Pattern SCHEMA_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    // Only one instance manages partitions at a time; the others skip the step
+    private static final long ADVISORY_LOCK_KEY = 0x6F7574626F78L;  // "outbox"
+
+    private static final String IS_PARTITIONED_SQL =
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                    + "WHERE c.oid = to_regclass('outbox'))";
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                    + "WHERE i.inhparent = to_regclass('outbox')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private boolean unpartitionedWarned;
+
+    @Value("${app.outbox.retention.retention-days:7}")
+    private int retentionDays;
+
+    @Value("${app.outbox.retention.premake-days:3}")
+    private int premakeDays;
+
+    @Value("${app.outbox.retention.delete-batch-size:5000}")
+    private int deleteBatchSize;
+
+    @Value("${app.outbox.retention.max-delete-batches:100}")
+    private int maxDeleteBatches;
+
+    @Value("${app.outbox.retention.lock-timeout-ms:2000}")
+    private long lockTimeoutMs;
+
+    @Value("${app.outbox.retention.archive-schema:}")
+    private String archiveSchema;
+
+    public OutboxRetentionJob(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.retention.interval-ms:3600000}")
+    public void run() {
+        try {
+            LocalDate today = LocalDate.now();
+            LocalDate cutoff = today.minusDays(retentionDays);
+
+            if (Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_PARTITIONED_SQL, Boolean.class))) {
+                createPartitions(today);
+                retirePartitions(cutoff);
+                deleteProcessedRows(DEFAULT_PARTITION, cutoff);
+            } else {
+                if (!unpartitionedWarned) {
+                    unpartitionedWarned = true;
+                    logger.warn("Table outbox is not partitioned (created before SQL/outbox-init.sql was applied); "
+                            + "falling back to batched deletes. Recreate it from SQL/schema.sql to enable partition retention.");
+                }
+                deleteProcessedRows("outbox", cutoff);
+            }
+        } catch (Exception e) {
+            logger.warn("Outbox retention run failed: {}", e.getMessage());
+        }
+    }
+
+    private void createPartitions(LocalDate today) {
+        for (int i = 0; i <= premakeDays; i++) {
+            LocalDate day = today.plusDays(i);
+            String partition = PARTITION_PREFIX + day.format(PARTITION_SUFFIX);
+            runDdl("create " + partition, String.format(
+                    "CREATE TABLE IF NOT EXISTS %s PARTITION OF outbox FOR VALUES FROM ('%s') TO ('%s')",
+                    partition, day, day.plusDays(1)));
+        }
+    }
+
+    // A partition is retired only once its whole day is past the cutoff and every row in it has been relayed
+    private void retirePartitions(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(LIST_PARTITIONS_SQL, String.class);
+        for (String partition : partitions) {
+            LocalDate day = partitionDay(partition);
+            if (day == null || day.plusDays(1).isAfter(cutoff)) {
+                continue;
+            }
+
+            Boolean pending = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE processed = false)", Boolean.class);
+            if (Boolean.TRUE.equals(pending)) {
+                logger.warn("Outbox partition {} is past retention but still has unprocessed rows; keeping it", partition);
+                continue;
+            }
+
+            String dispose = archiveSchema.isBlank()
+                    ? "DROP TABLE " + partition
+                    : "ALTER TABLE " + partition + " SET SCHEMA " + validSchema(archiveSchema);
+            runDdl("retire " + partition, "ALTER TABLE outbox DETACH PARTITION " + partition, dispose);
+        }
+    }
+
+    // Short transactions, each deleting at most deleteBatchSize rows, so vacuum and the relay keep up in between
+    private void deleteProcessedRows(String table, LocalDate cutoff) {
+        String sql = "DELETE FROM " + table + " WHERE id IN (SELECT id FROM " + table
+                + " WHERE processed = true AND processed_at < ? LIMIT ?)";
+        Timestamp before = Timestamp.valueOf(cutoff.atStartOfDay());
+
+        long deleted = 0;
+        for (int batch = 0; batch < maxDeleteBatches; batch++) {
+            int count = jdbcTemplate.update(sql, before, deleteBatchSize);
+            deleted += count;
+            if (count < deleteBatchSize) {
+                break;
+            }
+        }
+        if (deleted > 0) {
+            logger.info("Deleted {} processed outbox rows from {}", deleted, table);
+        }
+    }
+
+    private void runDdl(String description, String... statements) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                        "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ADVISORY_LOCK_KEY))) {
+                    return;
+                }
+                jdbcTemplate.execute("SET LOCAL lock_timeout = " + lockTimeoutMs);
+                for (String statement : statements) {
+                    jdbcTemplate.execute(statement);
+                }
+                logger.debug("Outbox partition step done: {}", description);
+            });
+        } catch (DataAccessException e) {
+            // Typically a lock timeout behind a long relay transaction, or default-partition rows in the new range
+            logger.warn("Outbox partition step '{}' skipped: {}", description, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static LocalDate partitionDay(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(matcher.group(1), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String validSchema(String schema) {
+        if (!SCHEMA_NAME.matcher(schema).matches()) {
+            throw new IllegalStateException("Invalid outbox archive schema name: " + schema);
+        }
+        return schema;
+    }
+}
@@ -1,30 +1,92 @@
 package com.jack.userservice.outbox;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.jack.userservice.message.WalletCreationMessage;
+import com.jack.userservice.metrics.PhaseTimers;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.jack.userservice.config.RabbitMQConfig.WALLET_CREATION_TYPE_ID;
+import static com.jack.userservice.constants.MetricNames.OUTBOX_LATENCY;
+import static com.jack.userservice.constants.MetricNames.OUTBOX_RELAY_PUBLISH;
+import static com.jack.userservice.constants.MetricNames.TAG_AGGREGATE;
+import static com.jack.userservice.constants.MetricNames.TAG_PHASE;
 
 @Service
 public class OutboxService {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    public static final String WALLET_CREATION_AGGREGATE_TYPE = "WalletCreation";
+    public static final Double INITIAL_WALLET_BALANCE = 1000.00;  // Initial balance of 1000 USD
+
+    private static final int MAX_ERROR_LENGTH = 1000;  // outbox.last_error column length
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO outbox (aggregate_id, aggregate_type, payload, created_at, processed) VALUES (?, ?, ?, ?, false)";
 
     private final OutboxRepository outboxRepository;
     private final RabbitTemplate rabbitTemplate;
     private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final PhaseTimers phaseTimers;
+
+    // All relays of this instance run here one at a time; wake-ups that arrive meanwhile collapse into one rerun
+    private final ExecutorService relayExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean relayPending = new AtomicBoolean();
 
-    @Value("${app.wallet-creation}")
-    private String walletCreationQueue;
+    @Value("${app.wallet.exchange}")
+    private String walletExchange;
 
-    public OutboxService(OutboxRepository outboxRepository, RabbitTemplate rabbitTemplate, ObjectMapper objectMapper) {
+    @Value("${app.wallet.routing-key.create}")
+    private String walletCreateRoutingKey;
+
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.outbox.confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public OutboxService(OutboxRepository outboxRepository, RabbitTemplate rabbitTemplate, ObjectMapper objectMapper,
+                         TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+                         PhaseTimers phaseTimers) {
         this.outboxRepository = outboxRepository;
         this.rabbitTemplate = rabbitTemplate;
         this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.phaseTimers = phaseTimers;
     }
 
     // Save an Outbox entry from DTO
@@ -34,6 +96,30 @@ public class OutboxService {
         return OutboxMapper.mapToDTO(savedEntity);
     }
 
+    // Record a wallet creation for the relay; joins the caller's transaction so it commits with the user
+    public void enqueueWalletCreation(Long userId, Double initialBalance) {
+        Outbox outbox = new Outbox();
+        outbox.setAggregateId(userId);
+        outbox.setAggregateType(WALLET_CREATION_AGGREGATE_TYPE);
+        outbox.setPayload(walletCreationPayload(userId, initialBalance));
+        outboxRepository.save(outbox);
+    }
+
+    // Bulk variant for imports: one JDBC batch, joining the caller's transaction like enqueueWalletCreation
+    public void enqueueWalletCreations(Collection<Long> userIds, Double initialBalance) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, userIds, userIds.size(), (ps, userId) -> {
+            ps.setLong(1, userId);
+            ps.setString(2, WALLET_CREATION_AGGREGATE_TYPE);
+            ps.setString(3, walletCreationPayload(userId, initialBalance));
+            ps.setTimestamp(4, createdAt);
+        });
+    }
+
     // Fetch an Outbox entry and return a DTO
     public OutboxDTO getOutboxById(Long id) {
         Outbox outboxEntity = outboxRepository.findById(id)
@@ -42,22 +128,119 @@ public class OutboxService {
         return OutboxMapper.mapToDTO(outboxEntity);
     }
 
-    // Scheduled method to process unprocessed messages in the Outbox
-    @Scheduled(fixedRate = 5000)
+    private String walletCreationPayload(Long userId, Double initialBalance) {
+        try {
+            return objectMapper.writeValueAsString(new WalletCreationMessage(userId, initialBalance));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize wallet creation message for user ID: " + userId, e);
+        }
+    }
+
+    // Called on NOTIFY from PostgreSQL (see OutboxNotificationListener) and by the fallback poll
+    public void requestRelay() {
+        if (!relayPending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            relayExecutor.execute(() -> {
+                relayPending.set(false);
+                try {
+                    processOutbox();
+                } catch (Exception e) {
+                    logger.error("Outbox relay failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            relayPending.set(false);  // Shutting down
+        }
+    }
+
+    // Fallback for missed notifications (listener reconnecting, trigger not installed)
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:5000}")
+    public void pollOutbox() {
+        requestRelay();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        relayExecutor.shutdown();
+    }
+
+    // Drains the outbox page by page until a page publishes fewer than batchSize rows. A page with dead-lettered
+    // rows ends the drain early; the next notification or poll picks up where it stopped.
     public void processOutbox() {
-        List<Outbox> unprocessedMessages = outboxRepository.findByProcessedFalse();
+        int published;
+        do {
+            Integer count = transactionTemplate.execute(status -> relayBatch());
+            published = count != null ? count : 0;
+        } while (published == batchSize);
+    }
+
+    // Claims one page, publishes it under publisher confirms and marks it processed, all in one transaction.
+    // A failed or nacked publish rolls the page back so it is retried (at-least-once delivery); a payload that
+    // cannot be parsed is dead-lettered in the same transaction so it is never claimed again.
+    // Returns the number of published rows.
+    private int relayBatch() {
+        List<Outbox> claimed = outboxRepository.claimUnprocessed(batchSize);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
 
-        for (Outbox outbox : unprocessedMessages) {
+        List<Message> messages = new ArrayList<>(claimed.size());
+        List<Long> publishedIds = new ArrayList<>(claimed.size());
+        List<LocalDateTime> createdAts = new ArrayList<>(claimed.size());
+
+        for (Outbox outbox : claimed) {
             try {
-                // Deserialize the message payload
-                WalletCreationMessage message = objectMapper.readValue(outbox.getPayload(), WalletCreationMessage.class);
-                rabbitTemplate.convertAndSend(walletCreationQueue, message);
-                outbox.setProcessed(true);
-                outbox.setProcessedAt(LocalDateTime.now());
-                outboxRepository.save(outbox);
+                // Parse only to keep malformed payloads off the queue; the stored JSON is already the wire format
+                objectMapper.readValue(outbox.getPayload(), WalletCreationMessage.class);
+                messages.add(walletCreationMessage(outbox.getPayload()));
+                publishedIds.add(outbox.getId());
+                createdAts.add(outbox.getCreatedAt());
             } catch (Exception e) {
-                System.err.println("Failed to process outbox message: " + e.getMessage());
+                logger.error("Dead-lettering outbox message ID: {} - {}", outbox.getId(), e.getMessage());
+                outboxRepository.markFailed(outbox.getId(), outbox.getCreatedAt(), LocalDateTime.now(),
+                        truncate("Malformed payload: " + e.getMessage(), MAX_ERROR_LENGTH));
             }
         }
+
+        if (!messages.isEmpty()) {
+            phaseTimers.record(OUTBOX_RELAY_PUBLISH, TAG_PHASE, "publish_confirm", () -> rabbitTemplate.invoke(operations -> {
+                for (Message message : messages) {
+                    operations.send(walletExchange, walletCreateRoutingKey, message);
+                }
+                // One round trip confirms the whole page
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            }));
+            recordLatency(createdAts);
+            outboxRepository.markProcessed(publishedIds, Collections.min(createdAts), LocalDateTime.now());
+        }
+
+        logger.info("Relayed {} of {} claimed outbox messages.", publishedIds.size(), claimed.size());
+        return publishedIds.size();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    // Same properties the JSON message converter would set for a WalletCreationMessage
+    private static Message walletCreationMessage(String payload) {
+        return MessageBuilder.withBody(payload.getBytes(StandardCharsets.UTF_8))
+                .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                .setContentEncoding(StandardCharsets.UTF_8.name())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, WALLET_CREATION_TYPE_ID)
+                .build();
+    }
+
+    // End-to-end latency per message, from the row's creation to the broker's publish confirm
+    private void recordLatency(List<LocalDateTime> createdAts) {
+        LocalDateTime confirmedAt = LocalDateTime.now();
+        for (LocalDateTime createdAt : createdAts) {
+            phaseTimers.timer(OUTBOX_LATENCY, TAG_AGGREGATE, WALLET_CREATION_AGGREGATE_TYPE)
+                    .record(Duration.between(createdAt, confirmedAt));
+        }
     }
 }
@@ -0,0 +1,5 @@
+package com.jack.userservice.repository;
+
+// Read-only projection of a user that never carries the password hash
+public record UserSummary(Long id, String name, String email) {
+}
@@ -0,0 +1,48 @@
+package com.jack.userservice.repository;
+
+import com.jack.userservice.entity.Users;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Plain JDBC batches for bulk imports: IDENTITY ids make Hibernate insert users one statement at a time
+@Repository
+public class UsersBulkRepository {
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('users', 'id')) FROM generate_series(1, ?)";
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO users (id, name, email, password) VALUES (?, ?, ?, ?) ON CONFLICT (email) DO NOTHING";
+    private static final String EXISTING_IDS_SQL = "SELECT id FROM users WHERE id = ANY (?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UsersBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Reserves ids from the same sequence the IDENTITY column uses, in one round trip
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, count);
+    }
+
+    // Inserts users with pre-assigned ids, skipping emails that already exist; returns the ids actually inserted
+    public Set<Long> insertIgnoringDuplicates(List<Users> users) {
+        if (users.isEmpty()) {
+            return Set.of();
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, users.size(), (ps, user) -> {
+            ps.setLong(1, user.getId());
+            ps.setString(2, user.getName());
+            ps.setString(3, user.getEmail());
+            ps.setString(4, user.getPassword());
+        });
+
+        // Batch update counts are unreliable with reWriteBatchedInserts, so ask which ids landed
+        Long[] ids = users.stream().map(Users::getId).toArray(Long[]::new);
+        return new HashSet<>(jdbcTemplate.queryForList(EXISTING_IDS_SQL, Long.class, (Object) ids));
+    }
+}
@@ -1,12 +1,49 @@
 package com.jack.userservice.repository;
 
 import com.jack.userservice.entity.Users;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UsersRepository extends JpaRepository<Users, Long> {
     Optional<Users> findByEmail(String email);
+
+    // Cursor over every email without loading entities; must be consumed inside a transaction
+    @Query("SELECT u.email FROM Users u")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllEmails();
+
+    // Keyset page: seeks past the last seen id on the primary key index instead of counting an OFFSET
+    @Query("SELECT new com.jack.userservice.repository.UserSummary(u.id, u.name, u.email) FROM Users u "
+            + "WHERE u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Email prefix search; served by the text_pattern_ops index (see SQL/schema.sql). The pattern must end in %
+    @Query("SELECT new com.jack.userservice.repository.UserSummary(u.id, u.name, u.email) FROM Users u "
+            + "WHERE u.email LIKE :emailPattern ESCAPE '!' AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesByEmailPrefixAfter(@Param("emailPattern") String emailPattern,
+                                                      @Param("afterId") Long afterId, Pageable pageable);
+
+    // Case-insensitive substring search on name; served by the pg_trgm GIN index
+    @Query("SELECT new com.jack.userservice.repository.UserSummary(u.id, u.name, u.email) FROM Users u "
+            + "WHERE u.name ILIKE :namePattern ESCAPE '!' AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesByNameAfter(@Param("namePattern") String namePattern,
+                                               @Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.jack.userservice.repository.UserSummary(u.id, u.name, u.email) FROM Users u "
+            + "WHERE u.email LIKE :emailPattern ESCAPE '!' AND u.name ILIKE :namePattern ESCAPE '!' "
+            + "AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findSummariesByEmailPrefixAndNameAfter(@Param("emailPattern") String emailPattern,
+                                                             @Param("namePattern") String namePattern,
+                                                             @Param("afterId") Long afterId, Pageable pageable);
 }
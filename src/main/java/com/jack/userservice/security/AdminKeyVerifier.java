@@ -0,0 +1,27 @@
+package com.jack.userservice.security;
+
+import com.jack.userservice.exception.CustomErrorException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+import static com.jack.userservice.constants.ErrorMessages.ADMIN_KEY_REQUIRED;
+
+// Guards the bulk admin endpoints, which act on every user rather than on the caller's own account.
+// Without a configured key every call is rejected.
+@Component
+public class AdminKeyVerifier {
+
+    @Value("${app.security.admin-key:}")
+    private String adminKey;
+
+    public void verify(String providedKey, String path) {
+        if (adminKey.isBlank() || providedKey == null || !MessageDigest.isEqual(
+                adminKey.getBytes(StandardCharsets.UTF_8), providedKey.getBytes(StandardCharsets.UTF_8))) {
+            throw new CustomErrorException(HttpStatus.UNAUTHORIZED, ADMIN_KEY_REQUIRED, path);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.jack.userservice.security;
+
+public class AuthTokenModes {
+    private AuthTokenModes() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    // Delegate to auth-service over HTTP
+    public static final String REMOTE = "remote";
+    // Handle in-process with the shared signing key
+    public static final String LOCAL = "local";
+}
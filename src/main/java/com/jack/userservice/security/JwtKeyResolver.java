@@ -0,0 +1,144 @@
+package com.jack.userservice.security;
+
+import com.jack.userservice.client.AuthServiceGateway;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Jwk;
+import io.jsonwebtoken.security.JwkSet;
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.SecretKey;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+public class JwtKeyResolver extends LocatorAdapter<Key> {
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyResolver.class);
+
+    public static final String KEY_SOURCE_SECRET = "secret";
+    public static final String KEY_SOURCE_JWKS = "jwks";
+
+    private final AuthServiceGateway authServiceGateway;
+
+    @Value("${app.auth.jwt.key-source:secret}")
+    private String keySource;
+
+    @Value("${app.auth.jwt.secret:}")
+    private String secret;
+
+    @Value("${app.auth.token-validation:remote}")
+    private String tokenValidationMode;
+
+    // Floor between JWKS fetches triggered by unknown kids, so forged kids cannot turn every request into one
+    @Value("${app.auth.jwt.jwks-min-refresh-interval-ms:30000}")
+    private long jwksMinRefreshIntervalMs;
+
+    private volatile SecretKey secretKey;
+    private volatile Map<String, Key> jwksKeys = Map.of();
+
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile long lastRefreshNanos;
+
+    public JwtKeyResolver(AuthServiceGateway authServiceGateway) {
+        this.authServiceGateway = authServiceGateway;
+    }
+
+    @PostConstruct
+    void init() {
+        if (!secret.isBlank()) {
+            secretKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        }
+    }
+
+    public boolean isConfigured() {
+        return KEY_SOURCE_JWKS.equals(keySource) || secretKey != null;
+    }
+
+    // Shared HMAC key, also used for signing when user-service issues tokens itself
+    public SecretKey getSecretKey() {
+        return secretKey;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        if (!KEY_SOURCE_JWKS.equals(keySource)) {
+            return secretKey;
+        }
+
+        // A null key makes the parser reject the token (UnsupportedJwtException)
+        String keyId = header.getKeyId();
+        if (keyId == null) {
+            return null;
+        }
+
+        Key key = jwksKeys.get(keyId);
+        if (key == null) {
+            // Unknown kid: the signing key may have rotated since the last refresh
+            refreshForUnknownKey();
+            key = jwksKeys.get(keyId);
+        }
+        return key;
+    }
+
+    // Single-flight and throttled: concurrent callers wait for the fetch in progress instead of starting their own,
+    // and nothing is fetched again until the cooldown has passed
+    private void refreshForUnknownKey() {
+        if (!refreshCooldownElapsed()) {
+            return;
+        }
+        refreshLock.lock();
+        try {
+            if (refreshCooldownElapsed()) {
+                loadJwks();
+            }
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean refreshCooldownElapsed() {
+        long last = lastRefreshNanos;
+        return last == 0 || System.nanoTime() - last >= TimeUnit.MILLISECONDS.toNanos(jwksMinRefreshIntervalMs);
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.jwt.jwks-refresh-ms:300000}")
+    public void refreshJwks() {
+        refreshLock.lock();
+        try {
+            loadJwks();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private void loadJwks() {
+        if (!KEY_SOURCE_JWKS.equals(keySource) || !AuthTokenModes.LOCAL.equals(tokenValidationMode)) {
+            return;
+        }
+
+        lastRefreshNanos = System.nanoTime();
+        try {
+            JwkSet jwkSet = Jwks.setParser().build().parse(authServiceGateway.getJwks());
+            Map<String, Key> keys = new HashMap<>();
+            for (Jwk<?> jwk : jwkSet.getKeys()) {
+                keys.put(jwk.getId(), jwk.toKey());
+            }
+            jwksKeys = Map.copyOf(keys);
+            logger.debug("Loaded {} signing keys from auth-service JWKS.", keys.size());
+        } catch (Exception e) {
+            // Keep the last known key set; tokens signed by known keys still verify
+            logger.error("Failed to refresh JWKS from auth-service: {}", e.getMessage());
+        }
+    }
+}
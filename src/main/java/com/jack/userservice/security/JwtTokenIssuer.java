@@ -0,0 +1,47 @@
+package com.jack.userservice.security;
+
+import com.jack.userservice.dto.AuthResponseDTO;
+import com.jack.userservice.entity.Users;
+import io.jsonwebtoken.Jwts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.UUID;
+
+@Component
+public class JwtTokenIssuer {
+    private static final String TOKEN_TYPE = "Bearer";
+
+    private final JwtKeyResolver jwtKeyResolver;
+
+    @Value("${app.auth.jwt.user-id-claim:userId}")
+    private String userIdClaim;
+
+    @Value("${app.auth.jwt.expiration-ms:3600000}")
+    private long expirationMs;
+
+    public JwtTokenIssuer(JwtKeyResolver jwtKeyResolver) {
+        this.jwtKeyResolver = jwtKeyResolver;
+    }
+
+    // Mints the same claims auth-service does (subject = email, userId, jti) with the shared HMAC key
+    public AuthResponseDTO issue(Users user) {
+        long now = System.currentTimeMillis();
+
+        String token = Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(user.getEmail())
+                .claim(userIdClaim, user.getId())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expirationMs))
+                .signWith(jwtKeyResolver.getSecretKey())
+                .compact();
+
+        return AuthResponseDTO.builder()
+                .token(token)
+                .tokenType(TOKEN_TYPE)
+                .expiresIn(expirationMs)
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.jack.userservice.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Component
+public class JwtTokenVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(JwtTokenVerifier.class);
+
+    private final JwtKeyResolver jwtKeyResolver;
+    private final TokenRevocationList tokenRevocationList;
+
+    @Value("${app.auth.jwt.user-id-claim:userId}")
+    private String userIdClaim;
+
+    @Value("${app.auth.jwt.clock-skew-seconds:30}")
+    private long clockSkewSeconds;
+
+    private JwtParser jwtParser;
+
+    public JwtTokenVerifier(JwtKeyResolver jwtKeyResolver, TokenRevocationList tokenRevocationList) {
+        this.jwtKeyResolver = jwtKeyResolver;
+        this.tokenRevocationList = tokenRevocationList;
+    }
+
+    @PostConstruct
+    void init() {
+        jwtParser = Jwts.parser()
+                .keyLocator(jwtKeyResolver)
+                .clockSkewSeconds(clockSkewSeconds)
+                .build();
+    }
+
+    // Verifies signature, expiry, subject/userId and revocation without leaving the process
+    public boolean verify(String token, Long userId) {
+        if (token == null || userId == null) {
+            return false;
+        }
+
+        String compactToken = TokenDigests.stripBearerPrefix(token);
+
+        Claims claims;
+        try {
+            claims = jwtParser.parseSignedClaims(compactToken).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            logger.warn("Rejected JWT for user ID: {} - {}", userId, e.getMessage());
+            return false;
+        }
+
+        if (!userId.equals(extractUserId(claims))) {
+            logger.warn("JWT does not belong to user ID: {}", userId);
+            return false;
+        }
+
+        if (tokenRevocationList.isRevoked(claims.getId(), TokenDigests.sha256(compactToken))) {
+            logger.warn("Revoked JWT presented for user ID: {}", userId);
+            return false;
+        }
+
+        return true;
+    }
+
+    private Long extractUserId(Claims claims) {
+        Object claim = claims.get(userIdClaim);
+        String value = claim != null ? claim.toString() : claims.getSubject();
+
+        try {
+            return value != null ? Long.valueOf(value) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
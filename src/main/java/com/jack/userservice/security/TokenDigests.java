@@ -0,0 +1,32 @@
+package com.jack.userservice.security;
+
+import com.jack.userservice.constants.SecurityConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+public class TokenDigests {
+    private TokenDigests() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+
+    // Strip the "Bearer " prefix if present
+    public static String stripBearerPrefix(String token) {
+        if (token != null && token.startsWith(SecurityConstants.BEARER_PREFIX)) {
+            return token.substring(SecurityConstants.BEARER_PREFIX.length()).trim();
+        }
+        return token;
+    }
+
+    // SHA-256 hex digest of the compact token, so raw tokens are never kept as keys
+    public static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(stripBearerPrefix(token).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.jack.userservice.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jack.userservice.client.AuthServiceGateway;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+
+@Component
+public class TokenRevocationList {
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationList.class);
+
+    private final AuthServiceGateway authServiceGateway;
+
+    @Value("${app.auth.token-validation:remote}")
+    private String tokenValidationMode;
+
+    // Snapshot from auth-service, swapped atomically on each refresh
+    private volatile Set<String> revoked = Set.of();
+
+    // Tokens logged out through this instance since the last refresh. Entries expire with the token lifetime,
+    // after which the token is rejected as expired anyway.
+    private final Cache<String, Boolean> revokedLocally;
+
+    public TokenRevocationList(AuthServiceGateway authServiceGateway,
+                               @Value("${app.auth.jwt.expiration-ms:3600000}") long tokenLifetimeMs) {
+        this.authServiceGateway = authServiceGateway;
+        this.revokedLocally = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(tokenLifetimeMs))
+                .build();
+    }
+
+    public boolean isRevoked(String tokenId, String tokenDigest) {
+        return (tokenId != null && (revoked.contains(tokenId) || revokedLocally.getIfPresent(tokenId) != null))
+                || revoked.contains(tokenDigest)
+                || revokedLocally.getIfPresent(tokenDigest) != null;
+    }
+
+    // Only meaningful for local validation; remote validation asks auth-service, which records the logout itself
+    public void revokeLocally(String token) {
+        if (AuthTokenModes.LOCAL.equals(tokenValidationMode)) {
+            revokedLocally.put(TokenDigests.sha256(token), Boolean.TRUE);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.jwt.revocation-refresh-ms:30000}")
+    public void refresh() {
+        if (!AuthTokenModes.LOCAL.equals(tokenValidationMode)) {
+            return;
+        }
+
+        try {
+            Set<String> latest = authServiceGateway.getRevokedTokens();
+            revoked = latest == null ? Set.of() : Set.copyOf(latest);
+            // auth-service has seen every logout by now, so its snapshot supersedes ours
+            revokedLocally.asMap().keySet().removeIf(revoked::contains);
+            logger.debug("Refreshed token revocation list: {} entries.", revoked.size());
+        } catch (Exception e) {
+            logger.error("Failed to refresh token revocation list from auth-service: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.jack.userservice.service;
+
+import com.jack.userservice.dto.AuthResponseDTO;
+import com.jack.userservice.entity.Users;
+
+public interface AuthTokenService {
+
+    // Issue a JWT for a user whose password has already been verified
+    AuthResponseDTO issueToken(Users user, String rawPassword);
+
+    // Check that the bearer token is valid for the given user
+    boolean validateToken(String token, Long userId);
+
+    // Forget any local trust in the token after logout; true if this service now rejects the token on its own
+    // (local validation), false if rejecting it depends on auth-service recording the logout
+    boolean invalidateToken(String token);
+}
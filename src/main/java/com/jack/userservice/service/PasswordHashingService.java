@@ -0,0 +1,24 @@
+package com.jack.userservice.service;
+
+import java.util.List;
+
+public interface PasswordHashingService {
+
+    // Hash a raw password on the dedicated hashing pool
+    String encode(String rawPassword);
+
+    // Hash many passwords in parallel for bulk work; runs on the caller when the pool is busy instead of rejecting
+    List<String> encodeAll(List<String> rawPasswords);
+
+    // Check a raw password against its hash on the dedicated hashing pool
+    boolean matches(String rawPassword, String encodedPassword);
+
+    // Tasks waiting for a hashing thread
+    int getQueueDepth();
+
+    // Tasks rejected because the pool and its queue were full
+    long getRejectedCount();
+
+    // Mean time tasks spent queued before a hashing thread picked them up
+    double getAverageWaitMillis();
+}
@@ -0,0 +1,13 @@
+package com.jack.userservice.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    // Fail fast (before the response is committed) when exports are switched off
+    void checkEnabled();
+
+    // Stream every user as NDJSON, optionally with the cached wallet balance
+    void exportUsers(OutputStream out, boolean includeBalances) throws IOException;
+}
@@ -0,0 +1,15 @@
+package com.jack.userservice.service;
+
+import org.springframework.http.MediaType;
+
+public enum UserImportFormat {
+    NDJSON,  // One UserRegistrationDTO JSON object per line
+    CSV;  // Header row naming name, email and password columns, then one user per line
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static UserImportFormat fromContentType(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mediaType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE)) ? CSV : NDJSON;
+    }
+}
@@ -0,0 +1,11 @@
+package com.jack.userservice.service;
+
+import com.jack.userservice.dto.UserImportResultDTO;
+
+import java.io.InputStream;
+
+public interface UserImportService {
+
+    // Stream users into the database in batches; bad rows are reported, not fatal
+    UserImportResultDTO importUsers(InputStream input, UserImportFormat format);
+}
@@ -2,10 +2,14 @@ package com.jack.userservice.service;
 
 import com.jack.userservice.dto.UserRegistrationDTO;
 import com.jack.userservice.dto.UserResponseDTO;
+import com.jack.userservice.dto.UsersBatchDTO;
 import com.jack.userservice.dto.UsersDTO;
+import com.jack.userservice.dto.UsersPageDTO;
 import com.jack.userservice.entity.Users;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface UserService {
     UserResponseDTO register(UserRegistrationDTO registrationDTO);
@@ -14,7 +18,8 @@ public interface UserService {
 
     void deleteUser(Long id);
 
-    Users login(String email, String password);
+    // Empty on a wrong password; an unknown email throws 401, as verifyPassword does
+    Optional<Users> login(String email, String password);
 
     Optional<Users> getUserById(Long id);
 
@@ -23,4 +28,10 @@ public interface UserService {
     boolean verifyPassword(String email, String rawPassword);
 
     UsersDTO getUserWithBalance(Long userId);
+
+    CompletableFuture<UsersDTO> getUserWithFreshBalance(Long userId);
+
+    UsersBatchDTO getUsersWithBalance(List<Long> userIds);
+
+    UsersPageDTO listUsers(String cursor, Integer limit, String emailPrefix, String name);
 }
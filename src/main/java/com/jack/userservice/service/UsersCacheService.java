@@ -0,0 +1,15 @@
+package com.jack.userservice.service;
+
+import com.jack.userservice.dto.UsersDTO;
+
+public interface UsersCacheService {
+
+    // Read-through lookup: L1 (in-process) -> L2 (Redis) -> database; null if the user does not exist
+    UsersDTO getUser(Long userId);
+
+    // Drop the user from both tiers and tell the other instances to drop their L1 copy
+    void evictUser(Long userId);
+
+    // Drop the user from this instance's L1 only
+    void evictLocal(Long userId);
+}
@@ -4,12 +4,15 @@ import com.jack.userservice.dto.UsersDTO;
 
 public interface UsersRedisService {
 
-    // Save UserDTO to Redis
-    void saveUserToRedis(UsersDTO user);
+    // Current cache generation of the user ('' if none); read it before loading the user from the database
+    String getUserGeneration(Long userId);
+
+    // Save UserDTO to Redis unless the user was invalidated since the generation was read
+    boolean saveUserToRedis(UsersDTO user, String generation);
 
     // Retrieve UserDTO from Redis
     UsersDTO getUserFromRedis(Long userId);
 
-    // Delete UserDTO from Redis
+    // Delete UserDTO from Redis and bump its generation
     void deleteUserFromRedis(Long userId);
 }
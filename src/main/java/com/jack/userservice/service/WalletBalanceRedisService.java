@@ -0,0 +1,22 @@
+package com.jack.userservice.service;
+
+import com.jack.userservice.dto.WalletBalanceDTO;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface WalletBalanceRedisService {
+
+    // Retrieve the cached balance for a user, or null if absent
+    WalletBalanceDTO getBalance(Long userId);
+
+    // Cache a balance unless a newer version is already cached
+    void saveBalance(WalletBalanceDTO balance);
+
+    // Cache many balances in one pipelined round trip, each guarded by its version
+    void saveBalances(Collection<WalletBalanceDTO> balances);
+
+    // Retrieve cached balances for many users in one round trip; absent users are left out
+    Map<Long, WalletBalanceDTO> getBalances(List<Long> userIds);
+}
@@ -0,0 +1,113 @@
+package com.jack.userservice.service.impl;
+
+import com.jack.userservice.cache.TokenValidationCache;
+import com.jack.userservice.client.AuthServiceGateway;
+import com.jack.userservice.dto.AuthRequestDTO;
+import com.jack.userservice.dto.AuthResponseDTO;
+import com.jack.userservice.entity.Users;
+import com.jack.userservice.metrics.PhaseTimers;
+import com.jack.userservice.security.AuthTokenModes;
+import com.jack.userservice.security.JwtKeyResolver;
+import com.jack.userservice.security.JwtTokenIssuer;
+import com.jack.userservice.security.JwtTokenVerifier;
+import com.jack.userservice.security.TokenRevocationList;
+import com.jack.userservice.service.AuthTokenService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.jack.userservice.constants.MetricNames.TAG_PATH;
+import static com.jack.userservice.constants.MetricNames.TOKEN_VALIDATION;
+
+@Service
+public class AuthTokenServiceImpl implements AuthTokenService {
+    private static final Logger logger = LoggerFactory.getLogger(AuthTokenServiceImpl.class);
+
+    private final AuthServiceGateway authServiceGateway;
+    private final JwtTokenVerifier jwtTokenVerifier;
+    private final JwtTokenIssuer jwtTokenIssuer;
+    private final JwtKeyResolver jwtKeyResolver;
+    private final TokenRevocationList tokenRevocationList;
+    private final TokenValidationCache tokenValidationCache;
+    private final PhaseTimers phaseTimers;
+
+    @Value("${app.auth.token-validation:remote}")
+    private String tokenValidationMode;
+
+    @Value("${app.auth.token-issuance:remote}")
+    private String tokenIssuanceMode;
+
+    public AuthTokenServiceImpl(AuthServiceGateway authServiceGateway,
+                                JwtTokenVerifier jwtTokenVerifier,
+                                JwtTokenIssuer jwtTokenIssuer,
+                                JwtKeyResolver jwtKeyResolver,
+                                TokenRevocationList tokenRevocationList,
+                                TokenValidationCache tokenValidationCache,
+                                PhaseTimers phaseTimers) {
+        this.authServiceGateway = authServiceGateway;
+        this.jwtTokenVerifier = jwtTokenVerifier;
+        this.jwtTokenIssuer = jwtTokenIssuer;
+        this.jwtKeyResolver = jwtKeyResolver;
+        this.tokenRevocationList = tokenRevocationList;
+        this.tokenValidationCache = tokenValidationCache;
+        this.phaseTimers = phaseTimers;
+    }
+
+    @PostConstruct
+    void init() {
+        if (AuthTokenModes.LOCAL.equals(tokenValidationMode)) {
+            if (!jwtKeyResolver.isConfigured()) {
+                throw new IllegalStateException("Local token validation requires app.auth.jwt.secret or app.auth.jwt.key-source=jwks");
+            }
+            // Load revocations (and JWKS keys) before the first request arrives
+            tokenRevocationList.refresh();
+            jwtKeyResolver.refreshJwks();
+        }
+        if (AuthTokenModes.LOCAL.equals(tokenIssuanceMode) && jwtKeyResolver.getSecretKey() == null) {
+            throw new IllegalStateException("Local token issuance requires app.auth.jwt.secret");
+        }
+        logger.info("Token validation mode: {}, issuance mode: {}", tokenValidationMode, tokenIssuanceMode);
+    }
+
+    @Override
+    public AuthResponseDTO issueToken(Users user, String rawPassword) {
+        if (AuthTokenModes.LOCAL.equals(tokenIssuanceMode)) {
+            return jwtTokenIssuer.issue(user);
+        }
+
+        // auth-service re-verifies the password before minting the token
+        return authServiceGateway.login(new AuthRequestDTO(user.getEmail(), rawPassword));
+    }
+
+    @Override
+    public boolean validateToken(String token, Long userId) {
+        if (AuthTokenModes.LOCAL.equals(tokenValidationMode)) {
+            return phaseTimers.record(TOKEN_VALIDATION, TAG_PATH, "local", () -> jwtTokenVerifier.verify(token, userId));
+        }
+
+        long start = System.nanoTime();
+        if (tokenValidationCache.isCachedValid(token, userId)) {
+            phaseTimers.timer(TOKEN_VALIDATION, TAG_PATH, "cache").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return true;
+        }
+
+        return phaseTimers.record(TOKEN_VALIDATION, TAG_PATH, "remote", () -> {
+            boolean valid = Boolean.TRUE.equals(authServiceGateway.validateToken(token, userId));
+            if (valid) {
+                tokenValidationCache.putValid(token, userId);
+            }
+            return valid;
+        });
+    }
+
+    @Override
+    public boolean invalidateToken(String token) {
+        tokenRevocationList.revokeLocally(token);
+        tokenValidationCache.evict(token);
+        return AuthTokenModes.LOCAL.equals(tokenValidationMode);
+    }
+}
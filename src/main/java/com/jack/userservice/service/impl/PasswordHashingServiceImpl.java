@@ -0,0 +1,158 @@
+package com.jack.userservice.service.impl;
+
+import com.jack.userservice.exception.CustomErrorException;
+import com.jack.userservice.service.PasswordHashingService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.jack.userservice.constants.ErrorMessages.PASSWORD_HASHING_BUSY;
+import static com.jack.userservice.constants.ErrorMessages.USERS_API_PATH;
+
+@Service
+public class PasswordHashingServiceImpl implements PasswordHashingService {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingServiceImpl.class);
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final int bulkQueueReserve;
+
+    private final LongAdder rejectedCount = new LongAdder();
+    // Tasks that have left the queue; the average wait is queue time per started task
+    private final LongAdder startedCount = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+
+    public PasswordHashingServiceImpl(PasswordEncoder passwordEncoder,
+                                      @Value("${app.security.hashing.pool-size:0}") int poolSize,
+                                      @Value("${app.security.hashing.queue-capacity:64}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        // Bulk hashing never takes the last half of the queue, which stays free for interactive requests
+        this.bulkQueueReserve = Math.max(1, queueCapacity / 2);
+
+        // BCrypt is pure CPU work, so more threads than cores only adds contention
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        logger.info("Password hashing pool started with {} threads and queue capacity {}", threads, queueCapacity);
+    }
+
+    @Override
+    public String encode(String rawPassword) {
+        return submitAndWait(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    @Override
+    public List<String> encodeAll(List<String> rawPasswords) {
+        List<Future<String>> futures = new ArrayList<>(rawPasswords.size());
+        for (String rawPassword : rawPasswords) {
+            futures.add(submitOrRunOnCaller(() -> passwordEncoder.encode(rawPassword)));
+        }
+
+        List<String> encoded = new ArrayList<>(futures.size());
+        for (Future<String> future : futures) {
+            encoded.add(await(future));
+        }
+        return encoded;
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submitAndWait(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    @Override
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public double getAverageWaitMillis() {
+        long started = startedCount.sum();
+        return started == 0 ? 0.0 : totalWaitNanos.sum() / (started * 1_000_000.0);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T submitAndWait(Callable<T> task) {
+        long enqueuedAt = System.nanoTime();
+
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                totalWaitNanos.add(System.nanoTime() - enqueuedAt);
+                startedCount.increment();
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            // Fail fast instead of letting request threads pile up behind the hashing pool
+            rejectedCount.increment();
+            logger.warn("Password hashing pool saturated, rejecting request (queue depth: {})", getQueueDepth());
+            throw new CustomErrorException(HttpStatus.TOO_MANY_REQUESTS, PASSWORD_HASHING_BUSY, USERS_API_PATH);
+        }
+
+        return await(future);
+    }
+
+    private <T> Future<T> submitOrRunOnCaller(Callable<T> task) {
+        if (executor.getQueue().remainingCapacity() > bulkQueueReserve) {
+            try {
+                return executor.submit(task);
+            } catch (RejectedExecutionException e) {
+                // Raced with other submitters for the last slots; fall through to the caller
+            }
+        }
+
+        FutureTask<T> callerTask = new FutureTask<>(task);
+        callerTask.run();
+        return callerTask;
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+}
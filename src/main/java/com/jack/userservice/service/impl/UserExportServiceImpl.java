@@ -0,0 +1,100 @@
+package com.jack.userservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.exception.CustomErrorException;
+import com.jack.userservice.export.UserExportWriter;
+import com.jack.userservice.repository.UserSummary;
+import com.jack.userservice.repository.UsersRepository;
+import com.jack.userservice.service.UserExportService;
+import com.jack.userservice.service.WalletBalanceRedisService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+import static com.jack.userservice.constants.ErrorMessages.GET_EXPORT_API_PATH;
+import static com.jack.userservice.constants.ErrorMessages.USER_EXPORT_DISABLED;
+
+@Service
+public class UserExportServiceImpl implements UserExportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserExportServiceImpl.class);
+
+    private final UsersRepository usersRepository;
+    private final WalletBalanceRedisService walletBalanceRedisService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.users.export.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.users.export.page-size:1000}")
+    private int pageSize;
+
+    public UserExportServiceImpl(UsersRepository usersRepository,
+                                 WalletBalanceRedisService walletBalanceRedisService,
+                                 ObjectMapper objectMapper,
+                                 PlatformTransactionManager transactionManager) {
+        this.usersRepository = usersRepository;
+        this.walletBalanceRedisService = walletBalanceRedisService;
+        this.objectMapper = objectMapper;
+        // Read-only, so exports are served by a replica when one is configured
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void checkEnabled() {
+        if (!enabled) {
+            throw new CustomErrorException(HttpStatus.FORBIDDEN, USER_EXPORT_DISABLED, GET_EXPORT_API_PATH);
+        }
+    }
+
+    // One short transaction per keyset page: no connection or snapshot is held while the client reads
+    @Override
+    public void exportUsers(OutputStream out, boolean includeBalances) throws IOException {
+        long exported = 0;
+        long lastId = 0;
+
+        try (UserExportWriter writer = new UserExportWriter(objectMapper.getFactory(), out)) {
+            while (true) {
+                long afterId = lastId;
+                List<UserSummary> page = readOnlyTransaction.execute(
+                        status -> usersRepository.findSummariesAfter(afterId, PageRequest.ofSize(pageSize)));
+                if (page == null || page.isEmpty()) {
+                    break;
+                }
+
+                Map<Long, WalletBalanceDTO> balances = includeBalances
+                        ? walletBalanceRedisService.getBalances(page.stream().map(UserSummary::id).toList())
+                        : Map.of();
+
+                for (UserSummary user : page) {
+                    writer.write(user, balances.get(user.id()));
+                }
+                writer.flush();
+
+                exported += page.size();
+                lastId = page.get(page.size() - 1).id();
+                if (page.size() < pageSize) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            // Usually the client went away mid-download
+            logger.warn("User export aborted after {} users: {}", exported, e.getMessage());
+            throw e;
+        }
+
+        logger.info("Exported {} users (balances: {})", exported, includeBalances);
+    }
+}
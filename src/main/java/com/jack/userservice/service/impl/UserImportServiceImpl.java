@@ -0,0 +1,293 @@
+package com.jack.userservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.jack.userservice.cache.EmailBloomFilter;
+import com.jack.userservice.dto.UserImportErrorDTO;
+import com.jack.userservice.dto.UserImportResultDTO;
+import com.jack.userservice.dto.UserRegistrationDTO;
+import com.jack.userservice.entity.Users;
+import com.jack.userservice.exception.CustomErrorException;
+import com.jack.userservice.outbox.OutboxService;
+import com.jack.userservice.repository.UsersBulkRepository;
+import com.jack.userservice.service.PasswordHashingService;
+import com.jack.userservice.service.UserImportFormat;
+import com.jack.userservice.service.UserImportService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.jack.userservice.constants.ErrorMessages.*;
+
+@Service
+public class UserImportServiceImpl implements UserImportService {
+    private static final Logger logger = LoggerFactory.getLogger(UserImportServiceImpl.class);
+
+    private static final String NAME_COLUMN = "name";
+    private static final String EMAIL_COLUMN = "email";
+    private static final String PASSWORD_COLUMN = "password";
+
+    private final UsersBulkRepository usersBulkRepository;
+    private final PasswordHashingService passwordHashingService;
+    private final OutboxService outboxService;
+    private final EmailBloomFilter emailBloomFilter;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.users.import.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.users.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.users.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public UserImportServiceImpl(UsersBulkRepository usersBulkRepository,
+                                 PasswordHashingService passwordHashingService,
+                                 OutboxService outboxService,
+                                 EmailBloomFilter emailBloomFilter,
+                                 TransactionTemplate transactionTemplate,
+                                 ObjectMapper objectMapper,
+                                 Validator validator) {
+        this.usersBulkRepository = usersBulkRepository;
+        this.passwordHashingService = passwordHashingService;
+        this.outboxService = outboxService;
+        this.emailBloomFilter = emailBloomFilter;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    @Override
+    public UserImportResultDTO importUsers(InputStream input, UserImportFormat format) {
+        if (!enabled) {
+            throw new CustomErrorException(HttpStatus.FORBIDDEN, USER_IMPORT_DISABLED, POST_IMPORT_API_PATH);
+        }
+
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+        List<ImportRow> batch = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            int[] csvColumns = null;
+            long lineNumber = 0;
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                if (format == UserImportFormat.CSV && csvColumns == null) {
+                    csvColumns = parseCsvHeader(line);
+                    if (csvColumns == null) {
+                        progress.fail(lineNumber, null, "CSV header must name the name, email and password columns");
+                        break;
+                    }
+                    continue;
+                }
+
+                ImportRow row = parseRow(line, lineNumber, format, csvColumns, progress);
+                if (row != null) {
+                    batch.add(row);
+                    if (batch.size() == batchSize) {
+                        importBatch(batch, progress);
+                        batch.clear();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("User import aborted after {} imported users: {}", progress.imported, e.getMessage());
+            throw new CustomErrorException(HttpStatus.BAD_REQUEST, USER_IMPORT_READ_FAILED, POST_IMPORT_API_PATH);
+        }
+
+        importBatch(batch, progress);
+        logger.info("User import finished: {} imported, {} failed", progress.imported, progress.failed);
+        return progress.toResult();
+    }
+
+    private ImportRow parseRow(String line, long lineNumber, UserImportFormat format, int[] csvColumns,
+                               ImportProgress progress) {
+        UserRegistrationDTO registration;
+        try {
+            registration = format == UserImportFormat.CSV
+                    ? parseCsvRow(line, csvColumns)
+                    : objectMapper.readValue(line, UserRegistrationDTO.class);
+        } catch (Exception e) {
+            progress.fail(lineNumber, null, "Malformed row: " + e.getMessage());
+            return null;
+        }
+
+        Set<ConstraintViolation<UserRegistrationDTO>> violations = validator.validate(registration);
+        if (!violations.isEmpty()) {
+            String reason = violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            progress.fail(lineNumber, registration.getEmail(), reason);
+            return null;
+        }
+        return new ImportRow(lineNumber, registration);
+    }
+
+    // Hash outside the transaction, then insert users and their outbox rows in one transaction per batch
+    private void importBatch(List<ImportRow> batch, ImportProgress progress) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<String> encodedPasswords = passwordHashingService.encodeAll(
+                    batch.stream().map(row -> row.registration().getPassword()).toList());
+            List<Long> ids = usersBulkRepository.allocateIds(batch.size());
+
+            List<Users> users = new ArrayList<>(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                UserRegistrationDTO registration = batch.get(i).registration();
+                users.add(Users.builder()
+                        .id(ids.get(i))
+                        .name(registration.getName())
+                        .email(registration.getEmail())
+                        .password(encodedPasswords.get(i))
+                        .build());
+            }
+
+            Set<Long> insertedIds = transactionTemplate.execute(status -> {
+                Set<Long> inserted = usersBulkRepository.insertIgnoringDuplicates(users);
+                outboxService.enqueueWalletCreations(
+                        users.stream().map(Users::getId).filter(inserted::contains).toList(),
+                        OutboxService.INITIAL_WALLET_BALANCE);
+                return inserted;
+            });
+
+            List<String> insertedEmails = new ArrayList<>(insertedIds.size());
+            for (int i = 0; i < users.size(); i++) {
+                Users user = users.get(i);
+                if (insertedIds.contains(user.getId())) {
+                    insertedEmails.add(user.getEmail());
+                } else {
+                    progress.fail(batch.get(i).lineNumber(), user.getEmail(), EMAIL_ALREADY_REGISTERED_BY_ANOTHER_USER);
+                }
+            }
+            progress.imported += insertedEmails.size();
+            emailBloomFilter.addAll(insertedEmails);
+        } catch (Exception e) {
+            // One bad batch (e.g. a constraint other than email) must not abort the rest of the import
+            logger.error("User import batch starting at line {} failed: {}", batch.get(0).lineNumber(), e.getMessage());
+            for (ImportRow row : batch) {
+                progress.fail(row.lineNumber(), row.registration().getEmail(), "Batch insert failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Returns the positions of the name, email and password columns, or null if any is missing
+    private int[] parseCsvHeader(String line) {
+        List<String> header = splitCsvLine(line).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int[] columns = {header.indexOf(NAME_COLUMN), header.indexOf(EMAIL_COLUMN), header.indexOf(PASSWORD_COLUMN)};
+        for (int column : columns) {
+            if (column < 0) {
+                return null;
+            }
+        }
+        return columns;
+    }
+
+    private UserRegistrationDTO parseCsvRow(String line, int[] columns) {
+        List<String> fields = splitCsvLine(line);
+        return UserRegistrationDTO.builder()
+                .name(fieldAt(fields, columns[0]).trim())
+                .email(fieldAt(fields, columns[1]).trim())
+                .password(fieldAt(fields, columns[2]))
+                .build();
+    }
+
+    private static String fieldAt(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            throw new IllegalArgumentException("expected at least " + (index + 1) + " columns");
+        }
+        return fields.get(index);
+    }
+
+    // RFC 4180 quoting within a single line ("" escapes a quote); quoted line breaks are not supported
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record ImportRow(long lineNumber, UserRegistrationDTO registration) {
+    }
+
+    private static final class ImportProgress {
+        private final int maxReportedErrors;
+        private final List<UserImportErrorDTO> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        private ImportProgress(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        private void fail(long lineNumber, String email, String reason) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new UserImportErrorDTO(lineNumber, email, reason));
+            }
+        }
+
+        private UserImportResultDTO toResult() {
+            return UserImportResultDTO.builder()
+                    .imported(imported)
+                    .failed(failed)
+                    .errors(errors)
+                    .errorsTruncated(failed > errors.size())
+                    .build();
+        }
+    }
+}
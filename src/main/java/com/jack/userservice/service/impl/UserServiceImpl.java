@@ -1,28 +1,50 @@
 package com.jack.userservice.service.impl;
 
-import com.jack.userservice.client.AuthServiceClient;
+import com.jack.userservice.cache.BalanceRefreshCoordinator;
+import com.jack.userservice.cache.EmailBloomFilter;
+import com.jack.userservice.datasource.ReadYourWritesTracker;
+import com.jack.userservice.client.WalletBalanceRequestSender;
 import com.jack.userservice.dto.*;
 import com.jack.userservice.entity.Users;
 import com.jack.userservice.exception.CustomErrorException;
 import com.jack.userservice.mapper.UsersMapper;
-import com.jack.userservice.message.WalletCreationMessage;
+import com.jack.userservice.metrics.PhaseTimers;
+import com.jack.userservice.outbox.OutboxService;
+import com.jack.userservice.repository.UserSummary;
 import com.jack.userservice.repository.UsersRepository;
+import com.jack.userservice.service.AuthTokenService;
+import com.jack.userservice.service.PasswordHashingService;
 import com.jack.userservice.service.UserService;
+import com.jack.userservice.service.UsersCacheService;
+import com.jack.userservice.service.WalletBalanceRedisService;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.AmqpConnectException;
-import org.springframework.amqp.AmqpException;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static com.jack.userservice.constants.ErrorMessages.*;
+import static com.jack.userservice.constants.MetricNames.REGISTER_PHASE;
+import static com.jack.userservice.constants.MetricNames.TAG_PHASE;
 
 @Service
 @RequiredArgsConstructor
@@ -30,31 +52,57 @@ public class UserServiceImpl implements UserService {
     private static final Logger logger = LoggerFactory.getLogger(UserServiceImpl.class);
 
     private final UsersRepository usersRepository;
-    private final PasswordEncoder passwordEncoder;
-    private final RabbitTemplate rabbitTemplate;
-    private final AuthServiceClient authServiceClient;
+    private final PasswordHashingService passwordHashingService;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
+    private final AuthTokenService authTokenService;
     private final UsersMapper usersMapper;
-    private final RedisTemplate<String, WalletBalanceDTO> redisTemplate;
+    private final UsersCacheService usersCacheService;
+    private final WalletBalanceRedisService walletBalanceRedisService;
+    private final BalanceRefreshCoordinator balanceRefreshCoordinator;
+    private final WalletBalanceRequestSender walletBalanceRequestSender;
+    private final EmailBloomFilter emailBloomFilter;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final PhaseTimers phaseTimers;
+
+    // Blocking Redis work chained onto balance replies; keeps it off the AMQP reply and timeout threads
+    private final ExecutorService balanceReplyExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("balance-reply-", 0).factory());
+
+    private static final String CURSOR_PREFIX = "id:";
+    private static final char LIKE_ESCAPE = '!';
+
+    @Value("${app.users.batch.max-size:100}")
+    private int maxBatchSize;
+
+    @Value("${app.users.page.enabled:false}")
+    private boolean listingEnabled;
 
-    @Value("${app.wallet.cache-prefix}")
-    private String cachePrefix;
+    @Value("${app.users.page.default-size:50}")
+    private int defaultPageSize;
 
-    @Value("${app.wallet.exchange}")
-    private String exchange;
+    @Value("${app.users.page.max-size:200}")
+    private int maxPageSize;
 
-    @Value("${app.wallet.routing-key.create}")
-    private String routingKey;
+    @PreDestroy
+    void shutdown() {
+        balanceReplyExecutor.shutdown();
+    }
 
     @Override
     public UserResponseDTO register(UserRegistrationDTO registrationDTO) {
-        // Check if user already exists
-        if (usersRepository.findByEmail(registrationDTO.getEmail()).isPresent()) {
+        // Check if user already exists; a definite miss in the email filter skips the query
+        boolean emailTaken = phaseTimers.record(REGISTER_PHASE, TAG_PHASE, "email_check",
+                () -> emailBloomFilter.mightContain(registrationDTO.getEmail())
+                        && usersRepository.findByEmail(registrationDTO.getEmail()).isPresent());
+        if (emailTaken) {
             logger.error("User registration failed. User with email '{}' already exists", registrationDTO.getEmail());
             throw new RuntimeException(EMAIL_ALREADY_REGISTERED_BY_ANOTHER_USER);
         }
 
         // Encode the password before saving
-        String encodedPassword = passwordEncoder.encode(registrationDTO.getPassword());
+        String encodedPassword = phaseTimers.record(REGISTER_PHASE, TAG_PHASE, "password_hash",
+                () -> passwordHashingService.encode(registrationDTO.getPassword()));
 
         // Create a new user without encoding password, as auth-service will handle encryption
         Users newUser = Users.builder()
@@ -63,16 +111,33 @@ public class UserServiceImpl implements UserService {
                 .password(encodedPassword)
                 .build();
 
-        logger.info("AUTH_SERVICE_URL: {}", System.getenv("AUTH_SERVICE_URL"));
-        Users savedUser = usersRepository.save(newUser);
+        // Persist the user and its wallet creation event atomically; the outbox relay publishes it
+        Double initialBalance = OutboxService.INITIAL_WALLET_BALANCE;
+        Users savedUser;
+        try {
+            savedUser = phaseTimers.record(REGISTER_PHASE, TAG_PHASE, "db_save",
+                    () -> transactionTemplate.execute(status -> {
+                        Users user = usersRepository.save(newUser);
+                        outboxService.enqueueWalletCreation(user.getId(), initialBalance);
+                        readYourWritesTracker.recordWrite(user.getId(), user.getEmail());
+                        return user;
+                    }));
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent registration of the same email
+            logger.error("User registration failed. User with email '{}' already exists", registrationDTO.getEmail());
+            throw new CustomErrorException(
+                    HttpStatus.CONFLICT,
+                    EMAIL_ALREADY_REGISTERED_BY_ANOTHER_USER,
+                    POST_USER_API_PATH
+            );
+        }
+        emailBloomFilter.add(savedUser.getEmail());
+        logger.info("Wallet creation queued in outbox for user ID: {}", savedUser.getId());
 
-        // Programmatically log the user in by calling auth-service
-        AuthRequestDTO authRequest = new AuthRequestDTO(savedUser.getEmail(), registrationDTO.getPassword());
-        AuthResponseDTO authResponse = authServiceClient.login(authRequest);  // Use Feign Client to call auth-service
+        // Programmatically log the user in (locally minted or via auth-service, depending on issuance mode)
+        AuthResponseDTO authResponse = phaseTimers.record(REGISTER_PHASE, TAG_PHASE, "token_issue",
+                () -> authTokenService.issueToken(savedUser, registrationDTO.getPassword()));
 
-        // Send a wallet creation message
-        Double initialBalance = 1000.00;
-        sendWalletCreationMessage(savedUser.getId(), initialBalance);  // Initial balance of 1000 USD
         // Return user details and JWT token
         return UserResponseDTO.builder()
                 .id(savedUser.getId())
@@ -84,27 +149,40 @@ public class UserServiceImpl implements UserService {
     @Override
     public Optional<Users> updateUser(Long id, Users users) {
         logger.info("Attempting to update user with ID: {}", id);
-        Users existingUser = findUserById(id);
 
-        if (usersRepository.findByEmail(users.getEmail()).filter(user -> !user.getId().equals(id)).isPresent()) {
-            logger.error("Email {} is already registered by another user.", users.getEmail());
-            throw new CustomErrorException(
-                    HttpStatus.CONFLICT,
-                    EMAIL_ALREADY_REGISTERED_BY_ANOTHER_USER,
-                    PUT_USER_API_PATH + id
-            );
-        }
-
-        existingUser.setName(users.getName());
-        existingUser.setEmail(users.getEmail());
-
-        if (users.getPassword() != null && !users.getPassword().isEmpty()) {
-            String encodedPassword = passwordEncoder.encode(users.getPassword());
-            existingUser.setPassword(encodedPassword);
-            logger.debug("Password updated for user with ID: {}", id);
-        }
-
-        Users updatedUser = usersRepository.save(existingUser);
+        // Hash before opening the transaction so no connection is held during BCrypt
+        String encodedPassword = users.getPassword() != null && !users.getPassword().isEmpty()
+                ? passwordHashingService.encode(users.getPassword())
+                : null;
+
+        Users updatedUser = transactionTemplate.execute(status -> {
+            Users existingUser = findUserById(id);
+
+            if (emailBloomFilter.mightContain(users.getEmail())
+                    && usersRepository.findByEmail(users.getEmail()).filter(user -> !user.getId().equals(id)).isPresent()) {
+                logger.error("Email {} is already registered by another user.", users.getEmail());
+                throw new CustomErrorException(
+                        HttpStatus.CONFLICT,
+                        EMAIL_ALREADY_REGISTERED_BY_ANOTHER_USER,
+                        PUT_USER_API_PATH + id
+                );
+            }
+
+            String previousEmail = existingUser.getEmail();
+            existingUser.setName(users.getName());
+            existingUser.setEmail(users.getEmail());
+
+            if (encodedPassword != null) {
+                existingUser.setPassword(encodedPassword);
+                logger.debug("Password updated for user with ID: {}", id);
+            }
+
+            Users saved = usersRepository.save(existingUser);
+            readYourWritesTracker.recordWrite(id, previousEmail, saved.getEmail());
+            return saved;
+        });
+        emailBloomFilter.add(updatedUser.getEmail());
+        usersCacheService.evictUser(id);
         logger.info("User with ID: {} updated successfully.", id);
         return Optional.of(updatedUser);
     }
@@ -112,72 +190,227 @@ public class UserServiceImpl implements UserService {
     @Override
     public void deleteUser(Long id) {
         logger.info("Attempting to delete user with ID: {}", id);
-        Users user = findUserById(id);
-        usersRepository.delete(user);
+        transactionTemplate.executeWithoutResult(status -> {
+            Users user = findUserById(id);
+            usersRepository.delete(user);
+            readYourWritesTracker.recordWrite(id, user.getEmail());
+        });
+        usersCacheService.evictUser(id);
         logger.info("User with ID: {} deleted successfully.", id);
     }
 
     @Override
-    public Users login(String email, String password) {
+    public Optional<Users> login(String email, String password) {
         logger.info("User login attempt with email: {}", email);
         Users user = findUserByEmail(email);
 
-        if (!passwordEncoder.matches(password, user.getPassword())) {
+        if (!passwordHashingService.matches(password, user.getPassword())) {
             logger.error("Invalid password for email: {}", email);
-            throw new CustomErrorException(
-                    HttpStatus.UNAUTHORIZED,
-                    INVALID_EMAIL_OR_PASSWORD,
-                    POST_LOGIN_API_PATH
-            );
+            return Optional.empty();
         }
 
         logger.info("User with email: {} logged in successfully.", email);
-        return user;
+        return Optional.of(user);
     }
 
     @Override
     public Optional<Users> getUserById(Long id) {
         logger.info("Fetching user by ID: {}", id);
-        return Optional.of(findUserById(id));
+        return Optional.of(readYourWritesTracker.readUser(id, () -> findUserById(id)));
     }
 
     @Override
     public Optional<Users> findByEmail(String email) {
         logger.info("Fetching user by email: {}", email);
-        return usersRepository.findByEmail(email);
+        return readYourWritesTracker.readByEmail(email, () -> usersRepository.findByEmail(email));
     }
 
     @Override
     public boolean verifyPassword(String email, String rawPassword) {
         Users user = findUserByEmail(email);  // Find the user by email
-        return passwordEncoder.matches(rawPassword, user.getPassword());  // Verify the password
+        return passwordHashingService.matches(rawPassword, user.getPassword());  // Verify the password
     }
 
     @Override
     public UsersDTO getUserWithBalance(Long userId) {
-        // Check if user exists
-        Users user = usersRepository.findById(userId)
-                .orElseThrow(() -> new CustomErrorException(HttpStatus.NOT_FOUND, USER_NOT_FOUND, GET_USER_API_PATH + userId));
-
-        UsersDTO usersDTO = usersMapper.toDto(user);
+        // Check if user exists (served from the user cache when possible)
+        UsersDTO usersDTO = usersCacheService.getUser(userId);
+        if (usersDTO == null) {
+            throw new CustomErrorException(HttpStatus.NOT_FOUND, USER_NOT_FOUND, GET_USER_API_PATH + userId);
+        }
 
         // Fetch balance from Redis (updated by wallet-service)
-        String cacheKey = cachePrefix + userId;
-        WalletBalanceDTO cachedBalance = redisTemplate.opsForValue().get(cacheKey);
+        WalletBalanceDTO cachedBalance = walletBalanceRedisService.getBalance(userId);
 
         if (cachedBalance != null) {
             logger.info("Returning balance from Redis for user ID: {}", userId);
             usersDTO.setUsdBalance(cachedBalance.getUsdBalance());
             usersDTO.setBtcBalance(cachedBalance.getBtcBalance());
         } else {
-            logger.warn("Balance not found in Redis for user ID: {}", userId);
+            logger.warn("Balance not found in Redis for user ID: {}, requesting refresh", userId);
             usersDTO.setUsdBalance(null);
             usersDTO.setBtcBalance(null);
+            balanceRefreshCoordinator.requestRefresh(userId);
         }
 
         return usersDTO;
     }
 
+    @Override
+    public CompletableFuture<UsersDTO> getUserWithFreshBalance(Long userId) {
+        UsersDTO usersDTO = usersCacheService.getUser(userId);
+        if (usersDTO == null) {
+            throw new CustomErrorException(HttpStatus.NOT_FOUND, USER_NOT_FOUND, GET_USER_API_PATH + userId);
+        }
+
+        return walletBalanceRequestSender.fetchBalance(userId)
+                .thenApplyAsync(balance -> {
+                    if (balance == null || !userId.equals(balance.getUserId())) {
+                        throw new IllegalStateException("Unexpected balance reply for user ID: " + userId);
+                    }
+                    walletBalanceRedisService.saveBalance(balance);
+                    balanceRefreshCoordinator.onBalanceReceived(userId);
+                    return balance;
+                }, balanceReplyExecutor)
+                .exceptionallyAsync(ex -> {
+                    // Past the deadline (or on a bad reply) answer with whatever is cached
+                    logger.warn("Fresh balance unavailable for user ID: {}, using cached value: {}", userId, ex.getMessage());
+                    return walletBalanceRedisService.getBalance(userId);
+                }, balanceReplyExecutor)
+                .thenApply(balance -> {
+                    usersDTO.setUsdBalance(balance != null ? balance.getUsdBalance() : null);
+                    usersDTO.setBtcBalance(balance != null ? balance.getBtcBalance() : null);
+                    return usersDTO;
+                });
+    }
+
+    @Override
+    public UsersBatchDTO getUsersWithBalance(List<Long> userIds) {
+        // De-duplicate while keeping the caller's order; empty list elements ("?ids=1,,2") bind as null
+        List<Long> requestedIds = userIds.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        if (requestedIds.size() > maxBatchSize) {
+            logger.error("Batch lookup of {} users exceeds the limit of {}", requestedIds.size(), maxBatchSize);
+            throw new CustomErrorException(HttpStatus.BAD_REQUEST, BATCH_SIZE_EXCEEDED, GET_USERS_API_PATH);
+        }
+
+        // One query for all users and one MGET for all balances
+        Map<Long, Users> usersById = readYourWritesTracker.readUsers(requestedIds,
+                        () -> usersRepository.findAllById(requestedIds)).stream()
+                .collect(Collectors.toMap(Users::getId, Function.identity()));
+        Map<Long, WalletBalanceDTO> balances = walletBalanceRedisService.getBalances(List.copyOf(usersById.keySet()));
+
+        List<UsersDTO> users = new ArrayList<>(usersById.size());
+        List<Long> missingIds = new ArrayList<>();
+        List<Long> uncachedBalanceIds = new ArrayList<>();
+
+        for (Long userId : requestedIds) {
+            Users user = usersById.get(userId);
+            if (user == null) {
+                missingIds.add(userId);
+                continue;
+            }
+
+            UsersDTO usersDTO = usersMapper.toDto(user);
+            WalletBalanceDTO balance = balances.get(userId);
+            if (balance != null) {
+                usersDTO.setUsdBalance(balance.getUsdBalance());
+                usersDTO.setBtcBalance(balance.getBtcBalance());
+            } else {
+                uncachedBalanceIds.add(userId);
+            }
+            users.add(usersDTO);
+        }
+        balanceRefreshCoordinator.requestRefreshAll(uncachedBalanceIds);
+
+        logger.info("Batch lookup returned {} users, {} missing", users.size(), missingIds.size());
+        return UsersBatchDTO.builder()
+                .users(users)
+                .missingIds(missingIds)
+                .build();
+    }
+
+    @Override
+    public UsersPageDTO listUsers(String cursor, Integer limit, String emailPrefix, String name) {
+        if (!listingEnabled) {
+            throw new CustomErrorException(HttpStatus.FORBIDDEN, USER_LISTING_DISABLED, GET_USERS_API_PATH);
+        }
+        long afterId = decodeCursor(cursor);
+        int pageSize = Math.min(limit != null && limit > 0 ? limit : defaultPageSize, maxPageSize);
+        // Fetch one extra row to learn whether another page exists without a COUNT
+        Pageable pageable = PageRequest.ofSize(pageSize + 1);
+
+        boolean byEmail = emailPrefix != null && !emailPrefix.isBlank();
+        boolean byName = name != null && !name.isBlank();
+        String emailPattern = byEmail ? escapeLike(emailPrefix.trim()) + "%" : null;
+        String namePattern = byName ? "%" + escapeLike(name.trim()) + "%" : null;
+
+        List<UserSummary> rows = readYourWritesTracker.readUnscoped(() -> {
+            if (byEmail && byName) {
+                return usersRepository.findSummariesByEmailPrefixAndNameAfter(emailPattern, namePattern, afterId, pageable);
+            } else if (byEmail) {
+                return usersRepository.findSummariesByEmailPrefixAfter(emailPattern, afterId, pageable);
+            } else if (byName) {
+                return usersRepository.findSummariesByNameAfter(namePattern, afterId, pageable);
+            }
+            return usersRepository.findSummariesAfter(afterId, pageable);
+        });
+
+        boolean hasMore = rows.size() > pageSize;
+        List<UserSummary> page = hasMore ? rows.subList(0, pageSize) : rows;
+
+        List<UsersDTO> users = page.stream()
+                .map(row -> UsersDTO.builder()
+                        .id(row.id())
+                        .name(row.name())
+                        .email(row.email())
+                        .build())
+                .toList();
+
+        return UsersPageDTO.builder()
+                .users(users)
+                .nextCursor(hasMore ? encodeCursor(page.get(page.size() - 1).id()) : null)
+                .build();
+    }
+
+    // Opaque to clients so the keyset can change without breaking them
+    private static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+            }
+        } catch (IllegalArgumentException e) {
+            // Falls through to the error below (NumberFormatException is an IllegalArgumentException)
+        }
+        logger.error("Rejected malformed page cursor: {}", cursor);
+        throw new CustomErrorException(HttpStatus.BAD_REQUEST, INVALID_PAGE_CURSOR, GET_USERS_API_PATH);
+    }
+
+    // Treat user input literally inside LIKE / ILIKE patterns
+    private static String escapeLike(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == LIKE_ESCAPE) {
+                escaped.append(LIKE_ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
     private Users findUserById(Long id) {
         return usersRepository.findById(id).orElseThrow(() -> {
             logger.error("User with ID: {} not found.", id);
@@ -190,7 +423,10 @@ public class UserServiceImpl implements UserService {
     }
 
     private Users findUserByEmail(String email) {
-        return usersRepository.findByEmail(email).orElseThrow(() -> {
+        // Not short-circuited by the email filter: an email registered on another instance a moment ago may not
+        // have reached this instance's filter yet, and a false "no such user" would fail the login
+        Optional<Users> user = readYourWritesTracker.readByEmail(email, () -> usersRepository.findByEmail(email));
+        return user.orElseThrow(() -> {
             logger.error("Invalid email or password for email: {}", email);
             return new CustomErrorException(
                     HttpStatus.UNAUTHORIZED,
@@ -199,22 +435,4 @@ public class UserServiceImpl implements UserService {
             );
         });
     }
-
-    private void sendWalletCreationMessage(Long userId, Double initialBalance) {
-        WalletCreationMessage walletMessage = new WalletCreationMessage(userId, initialBalance);
-
-        try {
-            rabbitTemplate.convertAndSend(exchange, routingKey, walletMessage);
-            logger.info("Wallet creation message sent for user ID: {}", userId);
-        } catch (AmqpConnectException e) {
-            logger.error("Connection to RabbitMQ failed: {}", e.getMessage());
-        } catch (AmqpException e) {
-            logger.error("Failed to send message to RabbitMQ: {}", e.getMessage());
-            throw new CustomErrorException(
-                    HttpStatus.INTERNAL_SERVER_ERROR,
-                    FAILED_WALLET_CREATION,
-                    POST_USER_API_PATH
-            );
-        }
-    }
 }
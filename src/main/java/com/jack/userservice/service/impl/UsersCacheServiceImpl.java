@@ -0,0 +1,127 @@
+package com.jack.userservice.service.impl;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jack.userservice.datasource.ReadYourWritesTracker;
+import com.jack.userservice.dto.UsersDTO;
+import com.jack.userservice.mapper.UsersMapper;
+import com.jack.userservice.repository.UsersRepository;
+import com.jack.userservice.service.UsersCacheService;
+import com.jack.userservice.service.UsersRedisService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Service
+public class UsersCacheServiceImpl implements UsersCacheService {
+    private static final Logger logger = LoggerFactory.getLogger(UsersCacheServiceImpl.class);
+
+    private final UsersRepository usersRepository;
+    private final UsersMapper usersMapper;
+    private final UsersRedisService usersRedisService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ExecutorService loadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncCache<Long, UsersDTO> localCache;
+
+    @Value("${app.users.cache.invalidation-channel}")
+    private String invalidationChannel;
+
+    public UsersCacheServiceImpl(UsersRepository usersRepository,
+                                 UsersMapper usersMapper,
+                                 UsersRedisService usersRedisService,
+                                 ReadYourWritesTracker readYourWritesTracker,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 @Value("${app.users.cache.local-max-size:10000}") long localMaxSize,
+                                 @Value("${app.users.cache.local-ttl-ms:60000}") long localTtlMs) {
+        this.usersRepository = usersRepository;
+        this.usersMapper = usersMapper;
+        this.usersRedisService = usersRedisService;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.stringRedisTemplate = stringRedisTemplate;
+        // The TTL bounds staleness if an invalidation message is ever lost.
+        // Loads run on their own virtual thread rather than inside the map's compute lock,
+        // so a slow Redis/DB call never pins the caller's carrier thread.
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(Duration.ofMillis(localTtlMs))
+                .executor(loadExecutor)
+                .buildAsync();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        loadExecutor.shutdown();
+    }
+
+    @Override
+    public UsersDTO getUser(Long userId) {
+        UsersDTO cached = localCache.get(userId, this::loadFromRedisOrDatabase).join();
+        // Callers add balances to the result, so never hand out the cached instance
+        return cached != null ? copyOf(cached) : null;
+    }
+
+    @Override
+    public void evictUser(Long userId) {
+        localCache.synchronous().invalidate(userId);
+
+        try {
+            usersRedisService.deleteUserFromRedis(userId);
+            stringRedisTemplate.convertAndSend(invalidationChannel, userId.toString());
+        } catch (Exception e) {
+            logger.error("Failed to invalidate cached user ID: {} in Redis: {}", userId, e.getMessage());
+        }
+    }
+
+    @Override
+    public void evictLocal(Long userId) {
+        localCache.synchronous().invalidate(userId);
+    }
+
+    private UsersDTO loadFromRedisOrDatabase(Long userId) {
+        String generation = null;
+        try {
+            UsersDTO cached = usersRedisService.getUserFromRedis(userId);
+            if (cached != null) {
+                return cached;
+            }
+            // Read before the database: an eviction in between makes the write below a no-op
+            generation = usersRedisService.getUserGeneration(userId);
+        } catch (Exception e) {
+            logger.warn("Redis lookup failed for user ID: {}, falling back to database: {}", userId, e.getMessage());
+        }
+
+        // Primary, not replica: the row goes to the shared L2, and a lagging replica would re-cache a row
+        // another instance has just updated and evicted
+        UsersDTO loaded = readYourWritesTracker.readFromPrimary(
+                () -> usersRepository.findById(userId).map(usersMapper::toDto).orElse(null));
+
+        if (loaded != null && generation != null) {
+            try {
+                if (!usersRedisService.saveUserToRedis(loaded, generation)) {
+                    logger.debug("User ID: {} was invalidated while loading; not caching it in Redis", userId);
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to cache user ID: {} in Redis: {}", userId, e.getMessage());
+            }
+        }
+        return loaded;
+    }
+
+    private UsersDTO copyOf(UsersDTO usersDTO) {
+        return UsersDTO.builder()
+                .id(usersDTO.getId())
+                .name(usersDTO.getName())
+                .email(usersDTO.getEmail())
+                .usdBalance(usersDTO.getUsdBalance())
+                .btcBalance(usersDTO.getBtcBalance())
+                .build();
+    }
+}
@@ -3,36 +3,88 @@ package com.jack.userservice.service.impl;
 import com.jack.userservice.dto.UsersDTO;
 import com.jack.userservice.service.UsersRedisService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Loads and invalidations are ordered by a per-user generation counter: a load that read the database before
+// an update or delete committed cannot write the old row back after the invalidation.
 @Service
 public class UsersRedisServiceImpl implements UsersRedisService {
 
     private static final String USER_CACHE_PREFIX = "users:";
+    private static final String SET_SCRIPT_LOCATION = "scripts/users-cache-set.lua";
+    private static final String EVICT_SCRIPT_LOCATION = "scripts/users-cache-evict.lua";
+    private static final RedisSerializer<Long> RESULT_SERIALIZER = new GenericToStringSerializer<>(Long.class);
 
     private final RedisTemplate<String, UsersDTO> redisTemplate;
+    private final DefaultRedisScript<Long> setScript;
+    private final DefaultRedisScript<Long> evictScript;
+
+    @Value("${app.users.cache.redis-ttl-ms:600000}")
+    private long redisTtlMs;
 
     @Autowired
     public UsersRedisServiceImpl(RedisTemplate<String, UsersDTO> redisTemplate) {
         this.redisTemplate = redisTemplate;
+        this.setScript = script(SET_SCRIPT_LOCATION);
+        this.evictScript = script(EVICT_SCRIPT_LOCATION);
     }
 
     @Override
-    public void saveUserToRedis(UsersDTO user) {
-        String cacheKey = USER_CACHE_PREFIX + user.getId();
-        redisTemplate.opsForValue().set(cacheKey, user);
+    public String getUserGeneration(Long userId) {
+        byte[] generation = redisTemplate.execute(connection -> connection.stringCommands()
+                .get(bytes(generationKey(userId))), true);
+        return generation != null ? new String(generation, StandardCharsets.UTF_8) : "";
+    }
+
+    @Override
+    public boolean saveUserToRedis(UsersDTO user, String generation) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<UsersDTO> valueSerializer = (RedisSerializer<UsersDTO>) redisTemplate.getValueSerializer();
+
+        Long written = redisTemplate.execute(setScript, RedisSerializer.byteArray(), RESULT_SERIALIZER,
+                List.of(userKey(user.getId()), generationKey(user.getId())),
+                valueSerializer.serialize(user), bytes(generation), bytes(Long.toString(redisTtlMs)));
+        return Long.valueOf(1).equals(written);
     }
 
     @Override
     public UsersDTO getUserFromRedis(Long userId) {
-        String cacheKey = USER_CACHE_PREFIX + userId;
-        return redisTemplate.opsForValue().get(cacheKey);
+        return redisTemplate.opsForValue().get(userKey(userId));
     }
 
+    // The generation is kept for the L2 TTL, far longer than any load can be in flight
     @Override
     public void deleteUserFromRedis(Long userId) {
-        String cacheKey = USER_CACHE_PREFIX + userId;
-        redisTemplate.delete(cacheKey);
+        redisTemplate.execute(evictScript, RedisSerializer.byteArray(), RESULT_SERIALIZER,
+                List.of(userKey(userId), generationKey(userId)), bytes(Long.toString(redisTtlMs)));
+    }
+
+    private static String userKey(Long userId) {
+        return USER_CACHE_PREFIX + userId;
+    }
+
+    // Hash tag on the whole user key: same cluster slot as "users:<id>" without renaming the cached keys
+    private static String generationKey(Long userId) {
+        return "{" + userKey(userId) + "}:generation";
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static DefaultRedisScript<Long> script(String location) {
+        DefaultRedisScript<Long> script = new DefaultRedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        script.setResultType(Long.class);
+        return script;
     }
 }
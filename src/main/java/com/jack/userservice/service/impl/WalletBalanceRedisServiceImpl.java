@@ -0,0 +1,153 @@
+package com.jack.userservice.service.impl;
+
+import com.jack.userservice.dto.WalletBalanceDTO;
+import com.jack.userservice.metrics.PhaseTimers;
+import com.jack.userservice.service.WalletBalanceRedisService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.jack.userservice.constants.MetricNames.REDIS_BALANCE_READ;
+import static com.jack.userservice.constants.MetricNames.TAG_OPERATION;
+
+@Service
+public class WalletBalanceRedisServiceImpl implements WalletBalanceRedisService {
+
+    private static final String CAS_SCRIPT_LOCATION = "scripts/wallet-balance-cas.lua";
+
+    private final RedisTemplate<String, WalletBalanceDTO> redisTemplate;
+    private final DefaultRedisScript<Long> casScript;
+    private final byte[] casScriptBody;
+    private final PhaseTimers phaseTimers;
+
+    @Value("${app.wallet.cache-prefix}")
+    private String cachePrefix;
+
+    @Value("${app.wallet.version-prefix}")
+    private String versionPrefix;
+
+    @Value("${app.wallet.cache-ttl-ms:604800000}")
+    private long cacheTtlMs;
+
+    public WalletBalanceRedisServiceImpl(RedisTemplate<String, WalletBalanceDTO> redisTemplate, PhaseTimers phaseTimers) {
+        this.redisTemplate = redisTemplate;
+        this.phaseTimers = phaseTimers;
+        this.casScript = new DefaultRedisScript<>();
+        this.casScript.setLocation(new ClassPathResource(CAS_SCRIPT_LOCATION));
+        this.casScript.setResultType(Long.class);
+        this.casScriptBody = casScript.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public WalletBalanceDTO getBalance(Long userId) {
+        return phaseTimers.record(REDIS_BALANCE_READ, TAG_OPERATION, "get",
+                () -> redisTemplate.opsForValue().get(balanceKey(userId)));
+    }
+
+    @Override
+    public void saveBalance(WalletBalanceDTO balance) {
+        saveBalances(List.of(balance));
+    }
+
+    // Every balance goes through the compare-and-set script so a late, older reply never overwrites
+    // a newer one; all writes of a batch share one pipelined round trip. The script is sent by SHA; only when
+    // Redis does not know it yet (first use, restart, failover) is the batch replayed with the full body,
+    // which also caches it. The replay is safe: the script skips versions that are already written.
+    @Override
+    public void saveBalances(Collection<WalletBalanceDTO> balances) {
+        if (balances.isEmpty()) {
+            return;
+        }
+
+        try {
+            writeBalances(balances, false);
+        } catch (RuntimeException e) {
+            if (!isNoScriptError(e)) {
+                throw e;
+            }
+            writeBalances(balances, true);
+        }
+    }
+
+    private void writeBalances(Collection<WalletBalanceDTO> balances, boolean sendScriptBody) {
+        @SuppressWarnings("unchecked")
+        RedisSerializer<WalletBalanceDTO> valueSerializer = (RedisSerializer<WalletBalanceDTO>) redisTemplate.getValueSerializer();
+
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (WalletBalanceDTO balance : balances) {
+                writeBalance(connection, balance, valueSerializer.serialize(balance), sendScriptBody);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public Map<Long, WalletBalanceDTO> getBalances(List<Long> userIds) {
+        Map<Long, WalletBalanceDTO> balances = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return balances;
+        }
+
+        List<String> cacheKeys = userIds.stream().map(this::balanceKey).toList();
+        List<WalletBalanceDTO> values = phaseTimers.record(REDIS_BALANCE_READ, TAG_OPERATION, "mget",
+                () -> redisTemplate.opsForValue().multiGet(cacheKeys));
+
+        if (values != null) {
+            // MGET answers positionally, with null for missing keys
+            for (int i = 0; i < userIds.size(); i++) {
+                if (values.get(i) != null) {
+                    balances.put(userIds.get(i), values.get(i));
+                }
+            }
+        }
+        return balances;
+    }
+
+    private void writeBalance(RedisConnection connection, WalletBalanceDTO balance, byte[] value,
+                              boolean sendScriptBody) {
+        byte[] balanceKey = balanceKey(balance.getUserId()).getBytes(StandardCharsets.UTF_8);
+        byte[] versionKey = versionKey(balance.getUserId()).getBytes(StandardCharsets.UTF_8);
+        // Empty for unversioned replies (older wallet-service); the script decides whether they may be written
+        byte[] version = balance.getVersion() != null
+                ? balance.getVersion().toString().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+        byte[] ttl = Long.toString(cacheTtlMs).getBytes(StandardCharsets.UTF_8);
+        if (sendScriptBody) {
+            connection.scriptingCommands().eval(casScriptBody, ReturnType.INTEGER, 2,
+                    balanceKey, versionKey, value, version, ttl);
+        } else {
+            connection.scriptingCommands().evalSha(casScript.getSha1(), ReturnType.INTEGER, 2,
+                    balanceKey, versionKey, value, version, ttl);
+        }
+    }
+
+    // The {userId} hash tag keeps a user's balance and version keys in one Redis Cluster slot, as the script needs
+    private String balanceKey(Long userId) {
+        return cachePrefix + "{" + userId + "}";
+    }
+
+    private String versionKey(Long userId) {
+        return versionPrefix + "{" + userId + "}";
+    }
+
+    private static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
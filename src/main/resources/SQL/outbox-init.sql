@@ -0,0 +1,47 @@
+-- Applied on every start through spring.sql.init, before Hibernate's ddl-auto runs, so a fresh database gets the
+-- partitioned outbox of schema.sql rather than a plain table generated from the entity. Every statement is
+-- idempotent. An outbox table that already exists is left as it is (OutboxRetentionJob warns when it is not
+-- partitioned). Statements are split on ';', so function and DO bodies are single-quoted instead of $$-quoted.
+
+CREATE TABLE IF NOT EXISTS outbox
+(
+    id             BIGINT GENERATED ALWAYS AS IDENTITY,
+    aggregate_id   BIGINT       NOT NULL,
+    aggregate_type VARCHAR(255) NOT NULL,
+    payload        TEXT         NOT NULL,
+    created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    processed      BOOLEAN      NOT NULL DEFAULT FALSE,
+    processed_at   TIMESTAMP,
+    failed_at      TIMESTAMP,
+    last_error     VARCHAR(1000),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+DO '
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(''outbox'')) THEN
+        CREATE TABLE IF NOT EXISTS outbox_default PARTITION OF outbox DEFAULT;
+    END IF;
+END';
+
+CREATE INDEX IF NOT EXISTS idx_aggregate_type ON outbox (aggregate_type);
+CREATE INDEX IF NOT EXISTS idx_outbox_unprocessed ON outbox (id) INCLUDE (created_at) WHERE processed = false;
+
+CREATE SCHEMA IF NOT EXISTS outbox_archive;
+
+CREATE OR REPLACE FUNCTION notify_outbox_inserted() RETURNS trigger AS '
+BEGIN
+    PERFORM pg_notify(''outbox_inserted'', '''');
+    RETURN NULL;
+END' LANGUAGE plpgsql;
+
+DO '
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_trigger WHERE tgname = ''outbox_inserted_notify'' AND NOT tgisinternal) THEN
+        CREATE TRIGGER outbox_inserted_notify
+            AFTER INSERT
+            ON outbox
+            FOR EACH STATEMENT
+        EXECUTE FUNCTION notify_outbox_inserted();
+    END IF;
+END';
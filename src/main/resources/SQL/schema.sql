@@ -19,21 +19,54 @@ CREATE TABLE users
 
 -- Create indexes
 CREATE INDEX idx_email ON users (email);
+-- Email prefix search (LIKE 'abc%') regardless of the database collation
+CREATE INDEX idx_users_email_pattern ON users (email text_pattern_ops);
+-- Case-insensitive name substring search (ILIKE '%abc%')
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_users_name_trgm ON users USING gin (name gin_trgm_ops);
 
 
 -- Drop outbox's table if it exists
 DROP TABLE IF EXISTS outbox CASCADE;
+-- Daily range partitions (outbox_pYYYYMMDD) are created ahead of time and retired by OutboxRetentionJob.
+-- The primary key must include the partition key; ids stay unique through the identity sequence.
 CREATE TABLE outbox
 (
-    id             BIGINT PRIMARY KEY GENERATED ALWAYS AS IDENTITY,
+    id             BIGINT GENERATED ALWAYS AS IDENTITY,
     aggregate_id   BIGINT       NOT NULL,
     aggregate_type VARCHAR(255) NOT NULL,
     payload        TEXT         NOT NULL,
     created_at     TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    processed      BOOLEAN               DEFAULT FALSE,
-    processed_at   TIMESTAMP
-);
+    processed      BOOLEAN      NOT NULL DEFAULT FALSE,
+    processed_at   TIMESTAMP,
+    failed_at      TIMESTAMP,                 -- Set with processed when the row was dead-lettered
+    last_error     VARCHAR(1000),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Catches inserts for days the retention job has not created yet; its old rows are deleted in batches
+CREATE TABLE outbox_default PARTITION OF outbox DEFAULT;
 
 -- Create indexes
 CREATE INDEX idx_aggregate_type ON outbox (aggregate_type);
-CREATE INDEX idx_processed ON outbox (processed);
+-- Only the relay's working set: stays tiny however many processed rows a partition holds
+CREATE INDEX idx_outbox_unprocessed ON outbox (id) INCLUDE (created_at) WHERE processed = false;
+
+-- Target of app.outbox.retention.archive-schema when retired partitions are kept instead of dropped
+CREATE SCHEMA IF NOT EXISTS outbox_archive;
+
+-- Wake the outbox relay (LISTEN outbox_inserted) once per inserting statement. NOTIFY is delivered on commit,
+-- so listeners never see rows from a transaction that rolled back.
+CREATE OR REPLACE FUNCTION notify_outbox_inserted() RETURNS trigger AS
+$$
+BEGIN
+    PERFORM pg_notify('outbox_inserted', '');
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER outbox_inserted_notify
+    AFTER INSERT
+    ON outbox
+    FOR EACH STATEMENT
+EXECUTE FUNCTION notify_outbox_inserted();
@@ -0,0 +1,8 @@
+-- Invalidation of a cached user profile.
+-- KEYS[1] = user key, KEYS[2] = generation key
+-- ARGV[1] = generation TTL in milliseconds
+-- Bumping the generation makes any load that started before this call fail its conditional write.
+redis.call('INCR', KEYS[2])
+redis.call('PEXPIRE', KEYS[2], ARGV[1])
+redis.call('DEL', KEYS[1])
+return 1
@@ -0,0 +1,11 @@
+-- Conditional write of a cached user profile.
+-- KEYS[1] = user key, KEYS[2] = generation key (hash tag on the user key, so both live in one cluster slot)
+-- ARGV[1] = serialized user, ARGV[2] = generation read before the database load ('' when there was none),
+-- ARGV[3] = TTL in milliseconds
+-- Returns 1 when the user was written, 0 when it was invalidated while it was being loaded.
+local current = redis.call('GET', KEYS[2]) or ''
+if current ~= ARGV[2] then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+return 1
@@ -0,0 +1,27 @@
+-- Compare-and-set for cached wallet balances.
+-- KEYS[1] = balance key, KEYS[2] = version key (same hash tag, so both live in one cluster slot)
+-- ARGV[1] = serialized balance, ARGV[2] = balance version ('' for an unversioned reply),
+-- ARGV[3] = TTL in milliseconds for both keys
+-- Returns 1 when the balance was written, 0 when an equal or newer version is already cached.
+-- The version only guards a balance that is still cached: once the balance key is gone (evicted, expired,
+-- deleted), any reply re-populates it.
+local current = redis.call('GET', KEYS[2])
+local cached = current and redis.call('EXISTS', KEYS[1]) == 1
+
+if ARGV[2] == '' then
+    -- Unversioned (older wallet-service) replies cannot be ordered against a versioned balance: drop them
+    -- while one is cached, otherwise last write wins and no stale version is left behind
+    if cached then
+        return 0
+    end
+    redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+    redis.call('DEL', KEYS[2])
+    return 1
+end
+
+if cached and tonumber(current) >= tonumber(ARGV[2]) then
+    return 0
+end
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3])
+redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+return 1